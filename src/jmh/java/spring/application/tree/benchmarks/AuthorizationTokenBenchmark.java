@@ -0,0 +1,63 @@
+package spring.application.tree.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import spring.application.tree.data.users.attributes.Role;
+import spring.application.tree.data.users.models.AbstractUserModel;
+import spring.application.tree.data.users.security.token.AuthorizationTokenCache;
+import spring.application.tree.data.users.security.token.AuthorizationTokenUtility;
+import spring.application.tree.data.users.security.token.AuthorizedToken;
+import spring.application.tree.data.users.security.token.TokenRevocationBackend;
+import spring.application.tree.data.users.security.token.TokenRevocationStore;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthorizationTokenBenchmark {
+    private AuthorizationTokenUtility authorizationTokenUtility;
+    private AbstractUserModel user;
+    private MockHttpServletRequest request;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        TokenRevocationStore tokenRevocationStore = new TokenRevocationStore(beanFactory.getBeanProvider(TokenRevocationBackend.class));
+        authorizationTokenUtility = new AuthorizationTokenUtility(new AuthorizationTokenCache(10_000, 3600), tokenRevocationStore);
+        ReflectionTestUtils.setField(authorizationTokenUtility, "tokenValidityDuration", 3600);
+        user = new AbstractUserModel();
+        user.setId(1);
+        user.setUsername("benchmark");
+        user.setPassword("password");
+        user.setRole(Role.ROLE_CUSTOMER);
+        request = new MockHttpServletRequest();
+        request.addHeader("User-Agent", "JMH");
+        request.setRemoteAddr("127.0.0.1");
+        token = authorizationTokenUtility.generateToken(user, request);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return authorizationTokenUtility.generateToken(user, request);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return authorizationTokenUtility.validateToken(token, user, request);
+    }
+
+    /**
+     * Warm path of the request filter, the token is already verified and cached
+     */
+    @Benchmark
+    public AuthorizedToken authorizeCachedToken() {
+        return authorizationTokenUtility.authorizeToken(token, username -> user);
+    }
+}
@@ -0,0 +1,55 @@
+package spring.application.tree.benchmarks;
+
+import spring.application.tree.data.orders.attributes.OrderStatus;
+import spring.application.tree.data.orders.models.OrderModel;
+import spring.application.tree.data.orders.models.ProductModel;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+final class BenchmarkFixtures {
+    static final String PRODUCT_DESCRIPTION = "{\"color\":\"black\",\"weight\":\"1.2kg\",\"material\":\"steel\",\"origin\":\"UA\"}";
+
+    private BenchmarkFixtures() {
+    }
+
+    static ProductModel product(int id) {
+        ProductModel product = new ProductModel();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setPrice(10.5 * id);
+        product.setAmount(100);
+        product.setAvailable(true);
+        product.setDescription(Map.of("color", "black", "origin", "UA"));
+        return product;
+    }
+
+    static OrderModel order(int id, int productCount) {
+        List<ProductModel> products = new ArrayList<>();
+        for (int i = 1; i <= productCount; i++) {
+            products.add(product(i));
+        }
+        OrderModel order = new OrderModel();
+        order.setId(id);
+        order.setCustomerId(1);
+        order.setOrderNumber(BigInteger.valueOf(100000000L + id));
+        order.setBookingTime(new Date());
+        order.setDeliveryAddress("Kyiv, Khreshchatyk 1");
+        order.setDeliveryCost(5.0);
+        order.setProductCost(products.stream().mapToDouble(ProductModel::getPrice).sum());
+        order.setProducts(products);
+        order.setOrderStatus(OrderStatus.values()[id % OrderStatus.values().length]);
+        return order;
+    }
+
+    static List<OrderModel> orders(int count, int productCount) {
+        List<OrderModel> orders = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            orders.add(order(i, productCount));
+        }
+        return orders;
+    }
+}
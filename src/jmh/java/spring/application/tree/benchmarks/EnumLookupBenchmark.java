@@ -0,0 +1,46 @@
+package spring.application.tree.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import spring.application.tree.data.orders.attributes.OrderHistoryEvent;
+import spring.application.tree.data.orders.attributes.OrderStatus;
+import spring.application.tree.data.users.attributes.Role;
+import spring.application.tree.data.users.attributes.Status;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnumLookupBenchmark {
+    @Benchmark
+    public void orderStatusFromOrdinal(Blackhole blackhole) {
+        for (int ordinal = 1; ordinal <= OrderStatus.values().length; ordinal++) {
+            blackhole.consume(OrderStatus.fromOrdinal(ordinal));
+        }
+    }
+
+    @Benchmark
+    public void orderHistoryEventFromOrdinal(Blackhole blackhole) {
+        for (int ordinal = 1; ordinal <= OrderHistoryEvent.values().length; ordinal++) {
+            blackhole.consume(OrderHistoryEvent.fromOrdinal(ordinal));
+        }
+    }
+
+    @Benchmark
+    public void roleFromOrdinal(Blackhole blackhole) {
+        for (int ordinal = 0; ordinal < Role.values().length; ordinal++) {
+            blackhole.consume(Role.fromOrdinal(ordinal));
+        }
+    }
+
+    @Benchmark
+    public void statusFromOrdinal(Blackhole blackhole) {
+        for (int ordinal = 0; ordinal < Status.values().length; ordinal++) {
+            blackhole.consume(Status.fromOrdinal(ordinal));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package spring.application.tree.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import spring.application.tree.data.orders.models.OrderModel;
+import spring.application.tree.data.utility.json.JsonCodec;
+import spring.application.tree.web.webscoket.models.WebSocketEvent;
+import spring.application.tree.web.webscoket.models.WebSocketMessage;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row JSON cost: a mapper built per call, as the mappers and services used to do, against the shared JsonCodec
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonCodecBenchmark {
+    private JsonCodec jsonCodec;
+    private String productDescription;
+    private String orderState;
+    private OrderModel order;
+    private WebSocketMessage webSocketMessage;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        jsonCodec = new JsonCodec();
+        productDescription = BenchmarkFixtures.PRODUCT_DESCRIPTION;
+        order = BenchmarkFixtures.order(1, 5);
+        orderState = jsonCodec.writeOrderState(order);
+        webSocketMessage = new WebSocketMessage(order, WebSocketEvent.ORDER_UPDATED);
+    }
+
+    @Benchmark
+    public Map<String, String> productDescriptionFreshMapper() throws JsonProcessingException {
+        return new ObjectMapper().readValue(productDescription, new TypeReference<>() {});
+    }
+
+    @Benchmark
+    public Map<String, String> productDescriptionSharedReader() throws JsonProcessingException {
+        return jsonCodec.readProductDescription(productDescription);
+    }
+
+    @Benchmark
+    public OrderModel orderStateReadFreshMapper() throws JsonProcessingException {
+        return new ObjectMapper().readValue(orderState, new TypeReference<>() {});
+    }
+
+    @Benchmark
+    public OrderModel orderStateReadSharedReader() throws JsonProcessingException {
+        return jsonCodec.readOrderState(orderState);
+    }
+
+    @Benchmark
+    public String orderStateWriteFreshMapper() throws JsonProcessingException {
+        return new ObjectMapper().writeValueAsString(order);
+    }
+
+    @Benchmark
+    public String orderStateWriteSharedWriter() throws JsonProcessingException {
+        return jsonCodec.writeOrderState(order);
+    }
+
+    @Benchmark
+    public String webSocketMessageFreshMapper() throws JsonProcessingException {
+        return new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsString(webSocketMessage);
+    }
+
+    @Benchmark
+    public String webSocketMessageSharedWriter() throws JsonProcessingException {
+        return jsonCodec.writeWebSocketMessage(webSocketMessage);
+    }
+}
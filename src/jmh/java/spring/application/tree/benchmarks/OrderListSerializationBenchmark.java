@@ -0,0 +1,38 @@
+package spring.application.tree.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import spring.application.tree.data.orders.models.OrderModel;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response body cost of order listings, using the ObjectMapper configuration Spring MVC applies
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderListSerializationBenchmark {
+    @Param({"10", "1000"})
+    private int orders;
+
+    private ObjectMapper objectMapper;
+    private List<OrderModel> orderList;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        orderList = BenchmarkFixtures.orders(orders, 3);
+    }
+
+    @Benchmark
+    public byte[] serializeOrders() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orderList);
+    }
+}
@@ -0,0 +1,132 @@
+package spring.application.tree.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import spring.application.tree.data.orders.models.OrderModel;
+import spring.application.tree.data.orders.models.ProductModel;
+import spring.application.tree.data.orders.repository.mappers.OrderMapper;
+import spring.application.tree.data.orders.repository.mappers.OrderWithProductsMapper;
+import spring.application.tree.data.orders.repository.mappers.ProductMapper;
+import spring.application.tree.data.statistic.models.OrderHistoryElement;
+import spring.application.tree.data.statistic.models.OrderHistoryNode;
+import spring.application.tree.data.statistic.repository.OrderHistoryCodec;
+import spring.application.tree.data.statistic.repository.mappers.OrderHistoryNodeMapper;
+import spring.application.tree.data.utility.json.JsonCodec;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row mapping cost per result set of the given size, JDBC itself is replaced by a synthetic ResultSet
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowMapperBenchmark {
+    @Param({"100", "1000"})
+    private int rows;
+
+    private JsonCodec jsonCodec;
+    private OrderHistoryCodec orderHistoryCodec;
+    private List<Map<String, Object>> orderRows;
+    private List<Map<String, Object>> productRows;
+    private List<Map<String, Object>> orderLineRows;
+    private List<Map<String, Object>> historyRows;
+
+    @Setup
+    public void setUp() throws Exception {
+        jsonCodec = new JsonCodec();
+        orderHistoryCodec = new OrderHistoryCodec(jsonCodec, 16);
+        orderRows = new ArrayList<>(rows);
+        productRows = new ArrayList<>(rows);
+        orderLineRows = new ArrayList<>(rows);
+        historyRows = new ArrayList<>(rows);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 1; i <= rows; i++) {
+            Map<String, Object> order = new HashMap<>();
+            order.put("id", i);
+            order.put("customer_id", i % 50 + 1);
+            order.put("order_number", String.valueOf(100000000L + i));
+            order.put("booking_time", now);
+            order.put("delivery_cost", 5.0);
+            order.put("delivery_address", "Kyiv, Khreshchatyk 1");
+            order.put("product_cost", 157.5);
+            order.put("paid", i % 2 == 0);
+            order.put("order_status", i % 11 + 1);
+            orderRows.add(order);
+
+            Map<String, Object> product = new HashMap<>();
+            product.put("id", i);
+            product.put("name", "Product " + i);
+            product.put("price", 10.5);
+            product.put("amount", 100);
+            product.put("available", true);
+            product.put("description", BenchmarkFixtures.PRODUCT_DESCRIPTION);
+            productRows.add(product);
+
+            Map<String, Object> orderLine = new HashMap<>(orderRows.get((i - 1) / 3));
+            orderLine.putAll(product);
+            orderLine.put("id", (i - 1) / 3 + 1);
+            orderLine.put("product_id", i);
+            orderLine.put("quantity", i % 3 + 1);
+            orderLineRows.add(orderLine);
+
+            Map<String, Object> history = new HashMap<>();
+            history.put("id", i);
+            history.put("order_number", String.valueOf(100000000L + i));
+            history.put("state", jsonCodec.writeOrderState(BenchmarkFixtures.order(i, 3)));
+            history.put("snapshot", true);
+            history.put("event", 2);
+            history.put("previous_record", i - 1);
+            history.put("date", now);
+            historyRows.add(history);
+        }
+    }
+
+    @Benchmark
+    public List<OrderModel> orderMapper() throws SQLException {
+        List<OrderModel> orders = new ArrayList<>(rows);
+        map(orderRows, new OrderMapper(orders));
+        return orders;
+    }
+
+    @Benchmark
+    public List<ProductModel> productMapper() throws SQLException {
+        List<ProductModel> products = new ArrayList<>(rows);
+        map(productRows, new ProductMapper(products, jsonCodec));
+        return products;
+    }
+
+    /**
+     * Three joined product rows per order, as read by the single-query order views
+     */
+    @Benchmark
+    public List<OrderModel> orderWithProductsMapper() throws SQLException {
+        List<OrderModel> orders = new ArrayList<>(rows / 3 + 1);
+        map(orderLineRows, new OrderWithProductsMapper(orders, jsonCodec));
+        return orders;
+    }
+
+    @Benchmark
+    public List<OrderHistoryElement> orderHistoryNodeMapper() throws SQLException {
+        List<OrderHistoryNode> tree = new ArrayList<>(rows);
+        map(historyRows, new OrderHistoryNodeMapper(tree));
+        return orderHistoryCodec.decode(tree);
+    }
+
+    private static void map(List<Map<String, Object>> rows, RowCallbackHandler handler) throws SQLException {
+        ResultSet rs = SyntheticResultSet.of(rows);
+        while (rs.next()) {
+            handler.processRow(rs);
+        }
+    }
+}
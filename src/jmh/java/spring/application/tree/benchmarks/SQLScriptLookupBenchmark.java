@@ -0,0 +1,43 @@
+package spring.application.tree.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import spring.application.tree.data.utility.loaders.PropertyResourceLoader;
+import spring.application.tree.data.utility.loaders.SQLScript;
+import spring.application.tree.data.utility.loaders.SQLScriptRegistry;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Script lookup as the repositories did it, reading the classpath resource per call, against the startup registry
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SQLScriptLookupBenchmark {
+    private SQLScriptRegistry sqlScriptRegistry;
+
+    @Setup
+    public void setUp() throws IOException {
+        sqlScriptRegistry = new SQLScriptRegistry();
+    }
+
+    @Benchmark
+    public String propertyResourceLoader() {
+        return PropertyResourceLoader.getSQLScript("classpath:sql/" + SQLScript.GET_ORDER_BY_ID.getLocation());
+    }
+
+    @Benchmark
+    public String registryScript() {
+        return sqlScriptRegistry.getScript(SQLScript.GET_ORDER_BY_ID);
+    }
+
+    @Benchmark
+    public String registryRenderedTemplate() {
+        return sqlScriptRegistry.renderTemplate(SQLScript.GET_ORDERS_BY_CRITERIA, List.of("productIds", "orderStatuses", "limit"));
+    }
+}
@@ -0,0 +1,58 @@
+package spring.application.tree.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Forward-only ResultSet over prepared rows, supports the getters the row mappers use
+ */
+final class SyntheticResultSet {
+    private SyntheticResultSet() {
+    }
+
+    static ResultSet of(List<Map<String, Object>> rows) {
+        int[] cursor = {-1};
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, (proxy, method, arguments) -> {
+            switch (method.getName()) {
+                case "next":
+                    return ++cursor[0] < rows.size();
+                case "close":
+                    return null;
+                case "wasNull":
+                    return false;
+                case "getRow":
+                    return cursor[0] + 1;
+                default:
+                    break;
+            }
+            if (!method.getName().startsWith("get") || arguments == null || !(arguments[0] instanceof String)) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            Object value = rows.get(cursor[0]).get((String) arguments[0]);
+            switch (method.getName()) {
+                case "getString":
+                    return value == null ? null : value.toString();
+                case "getInt":
+                    return value == null ? 0 : ((Number) value).intValue();
+                case "getLong":
+                    return value == null ? 0L : ((Number) value).longValue();
+                case "getDouble":
+                    return value == null ? 0D : ((Number) value).doubleValue();
+                case "getBoolean":
+                    return value != null && (Boolean) value;
+                case "getTimestamp":
+                    return value;
+                case "getDate":
+                    return value == null ? null : new Date(((Timestamp) value).getTime());
+                case "getObject":
+                    return value;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}
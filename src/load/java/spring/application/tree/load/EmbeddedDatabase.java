@@ -0,0 +1,56 @@
+package spring.application.tree.load;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfiguration;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Throwaway MariaDB server on a free port, data directory is removed on shutdown
+ */
+@Slf4j
+public class EmbeddedDatabase implements AutoCloseable {
+    private static final String SCHEMA = "system_data";
+    private static final String USERNAME = "root";
+
+    private final DB db;
+    private final DBConfiguration configuration;
+
+    private EmbeddedDatabase(DB db, DBConfiguration configuration) {
+        this.db = db;
+        this.configuration = configuration;
+    }
+
+    public static EmbeddedDatabase start() throws ManagedProcessException {
+        DBConfigurationBuilder builder = DBConfigurationBuilder.newBuilder();
+        builder.setPort(0);
+        builder.addArg("--character-set-server=utf8mb4");
+        builder.addArg("--max-connections=512");
+        if ("root".equals(System.getProperty("user.name"))) {
+            builder.addArg("--user=root");
+        }
+        DBConfiguration configuration = builder.build();
+        DB db = DB.newEmbeddedDB(configuration);
+        db.start();
+        log.info("Embedded database started on port {}", configuration.getPort());
+        return new EmbeddedDatabase(db, configuration);
+    }
+
+    public String getUrl() {
+        return String.format("jdbc:mysql://localhost:%d/%s?createDatabaseIfNotExist=true&useSSL=false&allowPublicKeyRetrieval=true", configuration.getPort(), SCHEMA);
+    }
+
+    public String getUsername() {
+        return USERNAME;
+    }
+
+    public String getPassword() {
+        return "";
+    }
+
+    @Override
+    public void close() throws ManagedProcessException {
+        db.stop();
+    }
+}
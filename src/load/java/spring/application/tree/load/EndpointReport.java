@@ -0,0 +1,44 @@
+package spring.application.tree.load;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.concurrent.TimeUnit;
+
+@Data
+public class EndpointReport {
+    private final String endpoint;
+    private final int requests;
+    private final int errors;
+    @JsonProperty("requests_per_second")
+    private final double requestsPerSecond;
+    @JsonProperty("p50_ms")
+    private final double p50;
+    @JsonProperty("p99_ms")
+    private final double p99;
+    @JsonProperty("max_ms")
+    private final double max;
+
+    public static EndpointReport of(String endpoint, LatencySamples samples, long elapsedNanos) {
+        long[] sorted = samples.sorted();
+        double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        return new EndpointReport(endpoint, samples.getCount(), samples.getErrors(), samples.getCount() / seconds,
+                millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)),
+                millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+    }
+
+    /**
+     * Nearest-rank percentile
+     */
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,48 @@
+package spring.application.tree.load;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of one endpoint recorded by one worker, merged once the run is over so recording never contends
+ */
+public class LatencySamples {
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    public void record(long latencyNanos, boolean failed) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (failed) {
+            errors++;
+        }
+    }
+
+    public void merge(LatencySamples other) {
+        if (count + other.count > latencies.length) {
+            latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, count + other.count));
+        }
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getErrors() {
+        return errors;
+    }
+
+    /**
+     * Sorted copy of the recorded latencies in nanoseconds
+     */
+    public long[] sorted() {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+}
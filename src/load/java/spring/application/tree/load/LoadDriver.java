@@ -0,0 +1,189 @@
+package spring.application.tree.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import spring.application.tree.data.utility.models.PairValue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Closed-loop driver, every worker sends its next request as soon as the previous response is fully read
+ */
+@Slf4j
+public class LoadDriver {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    /** Successful bodies are drained unread, failed ones are kept for the log */
+    private static final HttpResponse.BodyHandler<String> FAILURE_BODY = response -> response.statusCode() >= 400
+            ? HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8)
+            : HttpResponse.BodySubscribers.replacing(null);
+
+    private final URI base;
+    private final SeededData data;
+    private final LoadTestConfiguration configuration;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    /** Username -> Token */
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+    private final Set<LoadEndpoint> reportedFailures = ConcurrentHashMap.newKeySet();
+    private final LoadEndpoint[] endpoints;
+    private final int[] cumulativeWeights;
+
+    public LoadDriver(URI base, SeededData data, LoadTestConfiguration configuration) {
+        this.base = base;
+        this.data = data;
+        this.configuration = configuration;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        Map<LoadEndpoint, Integer> mix = configuration.getMix();
+        endpoints = mix.keySet().toArray(new LoadEndpoint[0]);
+        cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += mix.get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Logs every seeded customer and operator in once, tokens are reused by all workers
+     */
+    public void authenticate() throws Exception {
+        List<PairValue<String, Integer>> callers = Stream.concat(data.getCustomers().stream(), data.getOperators().stream()).collect(Collectors.toList());
+        long started = System.nanoTime();
+        runParallel(worker -> {
+            for (int i = worker; i < callers.size(); i += configuration.getConcurrency()) {
+                String username = callers.get(i).getKey();
+                HttpResponse<String> response = httpClient.send(LoadEndpoint.LOGIN.request(base, data, callers.get(i), new Random())
+                        .timeout(REQUEST_TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    throw new IOException(String.format("Login failed for %s with status %d: %s", username, response.statusCode(), response.body()));
+                }
+                JsonNode body = objectMapper.readTree(response.body());
+                tokens.put(username, body.get("token").asText());
+            }
+            return null;
+        });
+        log.info("Authenticated {} users in {} ms", tokens.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    public LoadTestReport run() throws Exception {
+        if (configuration.getWarmupSeconds() > 0) {
+            log.info("Warming up for {} s", configuration.getWarmupSeconds());
+            drive(TimeUnit.SECONDS.toNanos(configuration.getWarmupSeconds()));
+        }
+        log.info("Driving {} workers for {} s", configuration.getConcurrency(), configuration.getDurationSeconds());
+        long started = System.nanoTime();
+        List<Map<LoadEndpoint, LatencySamples>> recorded = drive(TimeUnit.SECONDS.toNanos(configuration.getDurationSeconds()));
+        long elapsed = System.nanoTime() - started;
+        Map<LoadEndpoint, LatencySamples> merged = new EnumMap<>(LoadEndpoint.class);
+        LatencySamples total = new LatencySamples();
+        for (Map<LoadEndpoint, LatencySamples> worker : recorded) {
+            worker.forEach((endpoint, samples) -> {
+                merged.computeIfAbsent(endpoint, key -> new LatencySamples()).merge(samples);
+                total.merge(samples);
+            });
+        }
+        List<EndpointReport> reports = merged.entrySet().stream()
+                .map(entry -> EndpointReport.of(entry.getKey().getKey(), entry.getValue(), elapsed))
+                .collect(Collectors.toList());
+        return new LoadTestReport(configuration.getConcurrency(), elapsed / (double) TimeUnit.SECONDS.toNanos(1),
+                EndpointReport.of("total", total, elapsed), reports);
+    }
+
+    private List<Map<LoadEndpoint, LatencySamples>> drive(long durationNanos) throws Exception {
+        long deadline = System.nanoTime() + durationNanos;
+        return runParallel(worker -> {
+            Random random = new Random(configuration.getSeed() + worker);
+            Map<LoadEndpoint, LatencySamples> samples = new EnumMap<>(LoadEndpoint.class);
+            while (System.nanoTime() < deadline) {
+                LoadEndpoint endpoint = nextEndpoint(random);
+                HttpRequest request = buildRequest(endpoint, random);
+                long sent = System.nanoTime();
+                boolean failed;
+                try {
+                    HttpResponse<String> response = httpClient.send(request, FAILURE_BODY);
+                    failed = response.statusCode() >= 400;
+                    if (failed && reportedFailures.add(endpoint)) {
+                        log.warn("First failure of {}: status {}, {}", endpoint.getKey(), response.statusCode(), response.body());
+                    }
+                } catch (IOException e) {
+                    failed = true;
+                    if (reportedFailures.add(endpoint)) {
+                        log.warn("First failure of {}: {}", endpoint.getKey(), e.getMessage());
+                    }
+                }
+                samples.computeIfAbsent(endpoint, key -> new LatencySamples()).record(System.nanoTime() - sent, failed);
+            }
+            return samples;
+        });
+    }
+
+    private LoadEndpoint nextEndpoint(Random random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    private HttpRequest buildRequest(LoadEndpoint endpoint, Random random) {
+        PairValue<String, Integer> caller = null;
+        if (endpoint.getCaller() == LoadEndpoint.Caller.CUSTOMER) {
+            caller = data.getCustomers().get(random.nextInt(data.getCustomers().size()));
+        } else if (endpoint.getCaller() == LoadEndpoint.Caller.OPERATOR) {
+            caller = data.getOperators().get(random.nextInt(data.getOperators().size()));
+        }
+        HttpRequest.Builder request = endpoint.request(base, data, caller, random).timeout(REQUEST_TIMEOUT);
+        if (endpoint.isAuthenticated()) {
+            request.header("Authorization", "Bearer " + tokens.get(caller.getKey()));
+        }
+        return request.build();
+    }
+
+    private <T> List<T> runParallel(Worker<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(configuration.getConcurrency());
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int worker = 0; worker < configuration.getConcurrency(); worker++) {
+                int index = worker;
+                futures.add(executor.submit(() -> task.run(index)));
+            }
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Worker<T> {
+        T run(int index) throws Exception;
+    }
+}
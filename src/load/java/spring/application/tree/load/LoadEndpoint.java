@@ -0,0 +1,124 @@
+package spring.application.tree.load;
+
+import lombok.Getter;
+import spring.application.tree.data.orders.attributes.OrderStatus;
+import spring.application.tree.data.utility.models.PairValue;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Endpoints the driver can hit, keys are used in the request mix and in the report
+ */
+@Getter
+public enum LoadEndpoint {
+    LOGIN("login", Caller.CUSTOMER, false) {
+        @Override
+        HttpRequest.Builder request(URI base, SeededData data, PairValue<String, Integer> caller, Random random) {
+            String form = String.format("username=%s&password=%s", encode(caller.getKey()), encode(data.getPassword()));
+            return HttpRequest.newBuilder(base.resolve("/login"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form));
+        }
+    },
+    ORDER_VIEW_CUSTOMER("order.view.customer", Caller.CUSTOMER, true) {
+        @Override
+        HttpRequest.Builder request(URI base, SeededData data, PairValue<String, Integer> caller, Random random) {
+            return HttpRequest.newBuilder(base.resolve("/order/view/customer?limit=50")).GET();
+        }
+    },
+    ORDER_VIEW_AVAILABLE("order.view.available", Caller.OPERATOR, true) {
+        @Override
+        HttpRequest.Builder request(URI base, SeededData data, PairValue<String, Integer> caller, Random random) {
+            return HttpRequest.newBuilder(base.resolve("/order/view/available?limit=100")).GET();
+        }
+    },
+    ORDER_VIEW_CRITERIA("order.view.criteria", Caller.OPERATOR, true) {
+        @Override
+        HttpRequest.Builder request(URI base, SeededData data, PairValue<String, Integer> caller, Random random) {
+            OrderStatus status = OrderStatus.values()[random.nextInt(OrderStatus.values().length)];
+            return HttpRequest.newBuilder(base.resolve(String.format("/order/view/criteria?order_status=%d&limit=100", status.getOrdinal()))).GET();
+        }
+    },
+    ORDER_VIEW_CONCRETE("order.view.concrete", Caller.OPERATOR, true) {
+        @Override
+        HttpRequest.Builder request(URI base, SeededData data, PairValue<String, Integer> caller, Random random) {
+            return HttpRequest.newBuilder(base.resolve("/order/view/concrete?id=" + pick(data.getOrderIds(), random))).GET();
+        }
+    },
+    ORDER_VIEW_OPERATOR("order.view.operator", Caller.OPERATOR, true) {
+        @Override
+        HttpRequest.Builder request(URI base, SeededData data, PairValue<String, Integer> caller, Random random) {
+            return HttpRequest.newBuilder(base.resolve("/order/view/operator?id=" + caller.getValue())).GET();
+        }
+    },
+    ORDER_CREATE("order.create", Caller.CUSTOMER, true) {
+        @Override
+        HttpRequest.Builder request(URI base, SeededData data, PairValue<String, Integer> caller, Random random) {
+            String products = random.ints(1 + random.nextInt(3), 0, data.getProducts().size())
+                    .distinct()
+                    .mapToObj(index -> data.getProducts().get(index))
+                    .map(product -> String.format(Locale.ROOT, "{\"id\":%d,\"price\":%.2f,\"quantity\":%d}", product.getKey(), product.getValue(), 1 + random.nextInt(2)))
+                    .collect(Collectors.joining(","));
+            String body = String.format("{\"customerId\":%d,\"deliveryAddress\":\"Test street %d\",\"deliveryCost\":%d,\"products\":[%s]}",
+                    caller.getValue(), caller.getValue(), random.nextInt(50), products);
+            return HttpRequest.newBuilder(base.resolve("/order/create"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    },
+    PRODUCT_VIEW_ALL("product.view.all", Caller.ANONYMOUS, false) {
+        @Override
+        HttpRequest.Builder request(URI base, SeededData data, PairValue<String, Integer> caller, Random random) {
+            return HttpRequest.newBuilder(base.resolve("/product/view/all")).GET();
+        }
+    },
+    PRODUCT_VIEW_CONCRETE("product.view.concrete", Caller.CUSTOMER, true) {
+        @Override
+        HttpRequest.Builder request(URI base, SeededData data, PairValue<String, Integer> caller, Random random) {
+            return HttpRequest.newBuilder(base.resolve("/product/view/concrete?product_id=" + data.getProducts().get(random.nextInt(data.getProducts().size())).getKey())).GET();
+        }
+    },
+    PRODUCT_VIEW_ORDERED("product.view.ordered", Caller.OPERATOR, true) {
+        @Override
+        HttpRequest.Builder request(URI base, SeededData data, PairValue<String, Integer> caller, Random random) {
+            return HttpRequest.newBuilder(base.resolve("/product/view/ordered?order_id=" + pick(data.getOrderIds(), random))).GET();
+        }
+    };
+
+    public enum Caller {
+        ANONYMOUS, CUSTOMER, OPERATOR
+    }
+
+    private final String key;
+    private final Caller caller;
+    private final boolean authenticated;
+
+    LoadEndpoint(String key, Caller caller, boolean authenticated) {
+        this.key = key;
+        this.caller = caller;
+        this.authenticated = authenticated;
+    }
+
+    abstract HttpRequest.Builder request(URI base, SeededData data, PairValue<String, Integer> caller, Random random);
+
+    public static LoadEndpoint fromKey(String key) {
+        return Arrays.stream(values()).filter(endpoint -> endpoint.key.equals(key)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown endpoint in request mix: %s", key)));
+    }
+
+    private static Integer pick(List<Integer> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
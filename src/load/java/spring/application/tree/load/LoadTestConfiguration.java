@@ -0,0 +1,97 @@
+package spring.application.tree.load;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Load test settings, defaults come from load-test.properties and every key can be overridden by a key=value argument
+ */
+@Getter
+public class LoadTestConfiguration {
+    private static final String DEFAULTS = "load-test.properties";
+
+    private final int customers;
+    private final int operators;
+    private final int products;
+    private final int orders;
+    private final int productsPerOrder;
+    private final long seed;
+    private final int concurrency;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final Map<LoadEndpoint, Integer> mix;
+    private final String report;
+
+    private LoadTestConfiguration(Properties properties) {
+        customers = positive(properties, "customers");
+        operators = positive(properties, "operators");
+        products = positive(properties, "products");
+        orders = positive(properties, "orders");
+        productsPerOrder = Math.min(positive(properties, "products.per.order"), products);
+        seed = Long.parseLong(properties.getProperty("seed").trim());
+        concurrency = positive(properties, "concurrency");
+        warmupSeconds = Integer.parseInt(properties.getProperty("warmup").trim());
+        durationSeconds = positive(properties, "duration");
+        mix = parseMix(properties.getProperty("mix"));
+        report = properties.getProperty("report", "").trim();
+    }
+
+    public static LoadTestConfiguration fromArguments(String[] args) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream defaults = LoadTestConfiguration.class.getClassLoader().getResourceAsStream(DEFAULTS)) {
+            if (defaults == null) {
+                throw new IOException(String.format("%s is missing from the classpath", DEFAULTS));
+            }
+            properties.load(defaults);
+        }
+        for (String argument : args) {
+            int separator = argument.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException(String.format("Expected key=value argument, got: %s", argument));
+            }
+            String key = argument.substring(0, separator).trim();
+            if (!properties.containsKey(key)) {
+                throw new IllegalArgumentException(String.format("Unknown load test setting: %s", key));
+            }
+            properties.setProperty(key, argument.substring(separator + 1));
+        }
+        return new LoadTestConfiguration(properties);
+    }
+
+    private static int positive(Properties properties, String key) {
+        int value = Integer.parseInt(properties.getProperty(key).trim());
+        if (value < 1) {
+            throw new IllegalArgumentException(String.format("%s must be positive, got: %d", key, value));
+        }
+        return value;
+    }
+
+    /**
+     * endpoint:weight pairs separated by commas, endpoints missing from the mix are not driven
+     */
+    private static Map<LoadEndpoint, Integer> parseMix(String mix) {
+        Map<LoadEndpoint, Integer> weights = new EnumMap<>(LoadEndpoint.class);
+        for (String entry : mix.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] pair = entry.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException(String.format("Expected endpoint:weight mix entry, got: %s", entry));
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(LoadEndpoint.fromKey(pair[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Request mix is empty");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,45 @@
+package spring.application.tree.load;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+@Data
+@Slf4j
+public class LoadTestReport {
+    private final int concurrency;
+    @JsonProperty("duration_seconds")
+    private final double durationSeconds;
+    private final EndpointReport total;
+    private final List<EndpointReport> endpoints;
+
+    public void print() {
+        StringBuilder table = new StringBuilder(String.format("%nLoad test: %d workers, %.1f s%n", concurrency, durationSeconds));
+        table.append(String.format("%-24s %10s %8s %10s %10s %10s %10s%n", "endpoint", "requests", "errors", "rps", "p50 ms", "p99 ms", "max ms"));
+        for (EndpointReport endpoint : endpoints) {
+            table.append(row(endpoint));
+        }
+        table.append(row(total));
+        log.info(table.toString());
+    }
+
+    public void write(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException(String.format("Could not create report directory: %s", parent));
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, this);
+        log.info("Load test report written to {}", file.getAbsolutePath());
+    }
+
+    private static String row(EndpointReport endpoint) {
+        return String.format("%-24s %10d %8d %10.1f %10.2f %10.2f %10.2f%n", endpoint.getEndpoint(), endpoint.getRequests(), endpoint.getErrors(),
+                endpoint.getRequestsPerSecond(), endpoint.getP50(), endpoint.getP99(), endpoint.getMax());
+    }
+}
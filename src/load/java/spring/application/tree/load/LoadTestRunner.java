@@ -0,0 +1,55 @@
+package spring.application.tree.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import spring.application.tree.ApplicationRunner;
+
+import java.io.File;
+import java.net.URI;
+
+/**
+ * Boots the application against an embedded MariaDB, seeds synthetic data and drives the HTTP API,
+ * run it through the load-test profile: mvn -P load-test verify -Dload.args="concurrency=64 duration=120"
+ */
+@Slf4j
+public class LoadTestRunner {
+    public static void main(String[] args) throws Exception {
+        LoadTestConfiguration configuration = LoadTestConfiguration.fromArguments(args);
+        try (EmbeddedDatabase database = EmbeddedDatabase.start()) {
+            System.setProperty("DB_URL", database.getUrl());
+            System.setProperty("DB_USERNAME", database.getUsername());
+            System.setProperty("DB_PASSWORD", database.getPassword());
+            System.setProperty("TOKEN_DURATION", String.valueOf(configuration.getWarmupSeconds() + configuration.getDurationSeconds() + 3600));
+            System.setProperty("WEBSOCKET_TIMEOUT", "5000");
+            System.setProperty("ADMIN_LOGIN", "");
+            System.setProperty("ADMIN_PASSWORD", "");
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            MariaDbMigrationResourceProvider migrations = new MariaDbMigrationResourceProvider();
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(ApplicationRunner.class)
+                    .initializers(applicationContext -> applicationContext.getBeanFactory()
+                            .registerSingleton("mariaDbMigrations", (FlywayConfigurationCustomizer) flyway -> flyway.resourceProvider(migrations)))
+                    .run("--server.port=0",
+                         "--logging.level.root=WARN",
+                         "--logging.level.spring.application.tree=WARN",
+                         "--logging.level.spring.application.tree.load=INFO");
+            try {
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                SyntheticDataGenerator generator = new SyntheticDataGenerator(context.getBean(JdbcTemplate.class), context.getBean(PasswordEncoder.class));
+                SeededData data = generator.generate(configuration);
+                LoadDriver driver = new LoadDriver(URI.create("http://localhost:" + port), data, configuration);
+                driver.authenticate();
+                LoadTestReport report = driver.run();
+                report.print();
+                if (!configuration.getReport().isEmpty()) {
+                    report.write(new File(configuration.getReport()));
+                }
+            } finally {
+                context.close();
+            }
+        }
+    }
+}
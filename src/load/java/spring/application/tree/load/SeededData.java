@@ -0,0 +1,21 @@
+package spring.application.tree.load;
+
+import lombok.Data;
+import spring.application.tree.data.utility.models.PairValue;
+
+import java.util.List;
+
+/**
+ * Identifiers of the synthetic rows, requests pick their parameters from here
+ */
+@Data
+public class SeededData {
+    private final String password;
+    /** Username -> customer id */
+    private final List<PairValue<String, Integer>> customers;
+    /** Username -> user id */
+    private final List<PairValue<String, Integer>> operators;
+    /** Product id -> Price */
+    private final List<PairValue<Integer, Double>> products;
+    private final List<Integer> orderIds;
+}
@@ -0,0 +1,129 @@
+package spring.application.tree.load;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import spring.application.tree.data.orders.attributes.OrderStatus;
+import spring.application.tree.data.users.attributes.Role;
+import spring.application.tree.data.users.attributes.Status;
+import spring.application.tree.data.utility.models.PairValue;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seeds customers, operators, products and orders straight through JDBC, the same seed always produces the same data set
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SyntheticDataGenerator {
+    private static final int BATCH_SIZE = 1000;
+    private static final String PASSWORD = "load-test-password";
+    private static final long FIRST_ORDER_NUMBER = 100000001L;
+    private static final long BOOKING_WINDOW = TimeUnit.DAYS.toMillis(180);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    public SeededData generate(LoadTestConfiguration configuration) {
+        Random random = new Random(configuration.getSeed());
+        long started = System.nanoTime();
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+        insertUsers("load-customer-", configuration.getCustomers(), Role.ROLE_CUSTOMER, encodedPassword);
+        insertUsers("load-operator-", configuration.getOperators(), Role.ROLE_SALESMAN, encodedPassword);
+        insertCustomers();
+        List<PairValue<String, Integer>> customers = jdbcTemplate.query("SELECT u.username, c.id FROM customers c INNER JOIN users u ON u.id = c.user_id WHERE u.username LIKE 'load-customer-%' ORDER BY c.id",
+                (rs, row) -> new PairValue<>(rs.getString("username"), rs.getInt("id")));
+        List<PairValue<String, Integer>> operators = jdbcTemplate.query("SELECT username, id FROM users WHERE username LIKE 'load-operator-%' ORDER BY id",
+                (rs, row) -> new PairValue<>(rs.getString("username"), rs.getInt("id")));
+        insertProducts(configuration.getProducts(), random);
+        List<PairValue<Integer, Double>> products = jdbcTemplate.query("SELECT id, price FROM products WHERE name LIKE 'load-product-%' ORDER BY id",
+                (rs, row) -> new PairValue<>(rs.getInt("id"), rs.getDouble("price")));
+        insertOrders(configuration.getOrders(), customers, random);
+        List<Integer> orderIds = jdbcTemplate.queryForList("SELECT id FROM orders ORDER BY id", Integer.class);
+        linkProducts(orderIds, products, configuration.getProductsPerOrder(), random);
+        assignOrders(orderIds, operators, random);
+        jdbcTemplate.update("UPDATE order_number_sequence SET next_value = GREATEST(next_value, ?) WHERE name = 'orders'",
+                FIRST_ORDER_NUMBER + configuration.getOrders());
+        log.info("Seeded {} customers, {} operators, {} products and {} orders in {} ms", customers.size(), operators.size(),
+                products.size(), orderIds.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return new SeededData(PASSWORD, customers, operators, products, orderIds);
+    }
+
+    private void insertUsers(String prefix, int count, Role role, String encodedPassword) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            rows.add(new Object[]{prefix + i, encodedPassword, role.ordinal(), Status.ENABLED.ordinal(), TimeZone.getDefault().getID()});
+        }
+        batch("INSERT INTO users(username, password, role, status, timezone) VALUES(?, ?, ?, ?, ?)", rows);
+    }
+
+    private void insertCustomers() {
+        jdbcTemplate.update("INSERT INTO customers(user_id, first_name, last_name, address) " +
+                            "SELECT id, 'Load', username, CONCAT('Test street ', id) FROM users WHERE username LIKE 'load-customer-%'");
+    }
+
+    private void insertProducts(int count, Random random) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            String description = String.format("{\"color\":\"color-%d\",\"weight\":\"%d g\"}", random.nextInt(16), 100 + random.nextInt(5000));
+            rows.add(new Object[]{"load-product-" + i, 1 + random.nextInt(100_000) / 100.0, 1000 + random.nextInt(10_000), true, description});
+        }
+        batch("INSERT INTO products(name, price, amount, available, description) VALUES(?, ?, ?, ?, ?)", rows);
+    }
+
+    private void insertOrders(int count, List<PairValue<String, Integer>> customers, Random random) {
+        OrderStatus[] statuses = OrderStatus.values();
+        long now = System.currentTimeMillis();
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PairValue<String, Integer> customer = customers.get(random.nextInt(customers.size()));
+            OrderStatus status = statuses[random.nextInt(statuses.length)];
+            rows.add(new Object[]{customer.getValue(), String.valueOf(FIRST_ORDER_NUMBER + i),
+                                  new Timestamp(now - (long) (random.nextDouble() * BOOKING_WINDOW)),
+                                  "Test street " + customer.getValue(), random.nextInt(50), random.nextInt(1_000_000) / 100.0,
+                                  status != OrderStatus.INITIATED && status != OrderStatus.PAYMENT_WAITING, status.getOrdinal()});
+        }
+        batch("INSERT INTO orders(customer_id, order_number, booking_time, delivery_address, delivery_cost, product_cost, paid, order_status) VALUES(?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void linkProducts(List<Integer> orderIds, List<PairValue<Integer, Double>> products, int productsPerOrder, Random random) {
+        List<Object[]> rows = new ArrayList<>(orderIds.size() * productsPerOrder);
+        for (Integer orderId : orderIds) {
+            Set<Integer> picked = new LinkedHashSet<>();
+            while (picked.size() < productsPerOrder) {
+                picked.add(products.get(random.nextInt(products.size())).getKey());
+            }
+            for (Integer productId : picked) {
+                rows.add(new Object[]{productId, orderId, 1 + random.nextInt(3)});
+            }
+        }
+        batch("INSERT INTO products_to_order(product_id, order_id, quantity) VALUES(?, ?, ?)", rows);
+    }
+
+    /**
+     * Roughly a third of the orders are taken by operators, the rest stay available
+     */
+    private void assignOrders(List<Integer> orderIds, List<PairValue<String, Integer>> operators, Random random) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Integer orderId : orderIds) {
+            if (random.nextInt(3) == 0) {
+                rows.add(new Object[]{operators.get(random.nextInt(operators.size())).getValue(), orderId});
+            }
+        }
+        batch("INSERT INTO orders_to_operator(operator_id, order_id) VALUES(?, ?)", rows);
+    }
+
+    private void batch(String query, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(query, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+}
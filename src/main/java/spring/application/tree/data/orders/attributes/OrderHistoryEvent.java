@@ -1,14 +1,15 @@
 package spring.application.tree.data.orders.attributes;
 
 import lombok.Getter;
-
-import java.util.Arrays;
-import java.util.Optional;
+import spring.application.tree.data.utility.attributes.OrdinalCodedEnum;
+import spring.application.tree.data.utility.attributes.OrdinalLookupTable;
 
 @Getter
-public enum OrderHistoryEvent {
+public enum OrderHistoryEvent implements OrdinalCodedEnum {
     ORDER_CREATED(1), ORDER_UPDATED(2), ORDER_DELETED(3);
 
+    private static final OrdinalLookupTable<OrderHistoryEvent> LOOKUP_TABLE = OrdinalLookupTable.of(OrderHistoryEvent.class);
+
     private final int ordinal;
 
     OrderHistoryEvent(int ordinal) {
@@ -16,7 +17,6 @@ public enum OrderHistoryEvent {
     }
 
     public static OrderHistoryEvent fromOrdinal(int ordinal) {
-        Optional<OrderHistoryEvent> orderHistoryEventOptional = Arrays.stream(OrderHistoryEvent.values()).filter(event -> event.getOrdinal() == ordinal).findFirst();
-        return orderHistoryEventOptional.orElse(null);
+        return LOOKUP_TABLE.get(ordinal);
     }
 }
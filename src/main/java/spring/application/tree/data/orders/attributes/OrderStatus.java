@@ -1,13 +1,15 @@
 package spring.application.tree.data.orders.attributes;
 
 import lombok.Getter;
+import spring.application.tree.data.utility.attributes.OrdinalCodedEnum;
+import spring.application.tree.data.utility.attributes.OrdinalLookupTable;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Getter
-public enum OrderStatus {
+public enum OrderStatus implements OrdinalCodedEnum {
     PAYMENT_WAITING(1),
     PAID(2),
     SENT(3),
@@ -20,6 +22,9 @@ public enum OrderStatus {
     CANCELLED(10),
     INITIATED(11);
 
+    private static final OrdinalLookupTable<OrderStatus> LOOKUP_TABLE = OrdinalLookupTable.of(OrderStatus.class);
+    public static final Set<OrderStatus> FINAL_STATUSES = Collections.unmodifiableSet(EnumSet.of(RECEIVED, RETURNED, NOT_DELIVERED, CANCELLED));
+
     private final int ordinal;
 
     OrderStatus(int ordinal) {
@@ -27,11 +32,10 @@ public enum OrderStatus {
     }
 
     public static OrderStatus fromOrdinal(int ordinal) {
-        Optional<OrderStatus> orderStatusOptional = Arrays.stream(OrderStatus.values()).filter(status -> status.getOrdinal() == ordinal).findFirst();
-        return orderStatusOptional.orElse(null);
+        return LOOKUP_TABLE.get(ordinal);
     }
 
-    public static List<OrderStatus> finalStatuses() {
-        return Arrays.asList(OrderStatus.RECEIVED, OrderStatus.RETURNED, OrderStatus.NOT_DELIVERED, OrderStatus.CANCELLED);
+    public static Set<OrderStatus> finalStatuses() {
+        return FINAL_STATUSES;
     }
 }
@@ -0,0 +1,21 @@
+package spring.application.tree.data.orders.models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class OperatorAssignmentModel {
+    @JsonProperty("operator_id")
+    private int operatorId;
+    private String username;
+    /**
+     * Orders held after the assignment, including the assigned ones
+     */
+    @JsonProperty("orders_taken_number")
+    private int ordersTakenNumber;
+    @JsonProperty("assigned_order_ids")
+    private List<Integer> assignedOrderIds = new ArrayList<>();
+}
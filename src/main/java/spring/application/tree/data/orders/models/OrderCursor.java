@@ -0,0 +1,42 @@
+package spring.application.tree.data.orders.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.http.HttpStatus;
+import spring.application.tree.data.exceptions.InvalidAttributesException;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Date;
+
+@Data
+@AllArgsConstructor
+public class OrderCursor {
+    private Date bookingTime;
+    private Integer id;
+
+    public static OrderCursor of(OrderModel order) {
+        return new OrderCursor(order.getBookingTime(), order.getId());
+    }
+
+    public static OrderCursor decode(String cursor) throws InvalidAttributesException {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(String.format("Cursor has %s parts", parts.length));
+            }
+            return new OrderCursor(new Timestamp(Long.parseLong(parts[0])), Integer.parseInt(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new InvalidAttributesException(String.format("Invalid cursor: %s", cursor), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.format("%s:%s", bookingTime.getTime(), id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,70 @@
+package spring.application.tree.data.orders.models;
+
+import org.springframework.http.HttpStatus;
+import spring.application.tree.data.exceptions.InvalidAttributesException;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Product ID -> Units, ordered by ID so row locks are always taken in the same order
+ */
+public class OrderLines {
+    /**
+     * One unit per occurrence of the product ID
+     */
+    public static Map<Integer, Integer> ofProductIds(Collection<Integer> productIds) throws InvalidAttributesException {
+        if (productIds == null) {
+            throw new InvalidAttributesException("Invalid product IDs: null", "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+        Map<Integer, Integer> lines = new TreeMap<>();
+        for (Integer productId : productIds) {
+            lines.merge(validProductId(productId), 1, Integer::sum);
+        }
+        return lines;
+    }
+
+    /**
+     * Units taken from the product quantity, a product without quantity is a single unit
+     */
+    public static Map<Integer, Integer> ofProducts(Collection<ProductModel> products) throws InvalidAttributesException {
+        if (products == null) {
+            throw new InvalidAttributesException("Invalid order products: null", "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+        Map<Integer, Integer> lines = new TreeMap<>();
+        for (ProductModel product : products) {
+            if (product == null) {
+                throw new InvalidAttributesException("Invalid order product: null", "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+            }
+            if (product.getQuantity() != null && product.getQuantity() < 1) {
+                throw new InvalidAttributesException(String.format("Invalid quantity of product %s: %s", product.getId(), product.getQuantity()), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+            }
+            lines.merge(validProductId(product.getId()), product.getQuantity() == null ? 1 : product.getQuantity(), Integer::sum);
+        }
+        return lines;
+    }
+
+    /**
+     * Requested units capped by the units the order holds, products the order does not hold are left out
+     * @param held Product ID -> Units held by the order
+     */
+    public static Map<Integer, Integer> heldOf(Map<Integer, Integer> requested, Map<Integer, Integer> held) {
+        Map<Integer, Integer> lines = new TreeMap<>();
+        requested.forEach((productId, units) -> {
+            Integer quantity = held.get(productId);
+            if (quantity != null && quantity > 0) {
+                lines.put(productId, Math.min(units, quantity));
+            }
+        });
+        return lines;
+    }
+
+    private static Integer validProductId(Integer productId) throws InvalidAttributesException {
+        if (productId == null || productId < 1) {
+            throw new InvalidAttributesException(String.format("Invalid product ID: %s", productId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+        return productId;
+    }
+}
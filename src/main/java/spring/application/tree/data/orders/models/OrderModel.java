@@ -34,7 +34,7 @@ public class OrderModel {
         if (deliveryAddress != null && deliveryAddress.isEmpty()) {
             return false;
         }
-        if (products == null || products.isEmpty() || products.stream().anyMatch(product -> product.getId() < 1)) {
+        if (products == null || products.isEmpty() || products.stream().anyMatch(product -> product == null || product.getId() == null || product.getId() < 1)) {
             return false;
         }
         if (deliveryCost < 0) {
@@ -0,0 +1,15 @@
+package spring.application.tree.data.orders.models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class OrderPageModel {
+    private List<OrderModel> orders;
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+}
@@ -0,0 +1,42 @@
+package spring.application.tree.data.orders.models;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable state of the product catalog: products in ID order, their serialized JSON array and its entity tag
+ */
+@Getter
+public class ProductCatalogSnapshot {
+    /** Product ID -> Product */
+    private final Map<Integer, ProductModel> products;
+    private final byte[] body;
+    private final String etag;
+
+    public ProductCatalogSnapshot(Map<Integer, ProductModel> products, byte[] body, String etag) {
+        this.products = Collections.unmodifiableMap(products);
+        this.body = body;
+        this.etag = etag;
+    }
+
+    /**
+     * @param ifNoneMatch If-None-Match header value, a list of strong or weak tags or *
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
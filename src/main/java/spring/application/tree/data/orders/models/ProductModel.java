@@ -1,8 +1,11 @@
 package spring.application.tree.data.orders.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Data
@@ -14,6 +17,24 @@ public class ProductModel {
     private Integer amount;
     private boolean isAvailable;
     private Map<String, String> description;
+    /** Units in an order line, absent outside of orders */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer quantity;
+
+    /**
+     * Detached copy with an unmodifiable description, shared snapshots are never handed out directly
+     */
+    public ProductModel copy() {
+        ProductModel copy = new ProductModel();
+        copy.setId(id);
+        copy.setName(name);
+        copy.setPrice(price);
+        copy.setAmount(amount);
+        copy.setAvailable(isAvailable);
+        copy.setDescription(description == null ? null : Collections.unmodifiableMap(new LinkedHashMap<>(description)));
+        copy.setQuantity(quantity);
+        return copy;
+    }
 
     public boolean validateData() {
         if (id != null && id < 1) {
@@ -28,6 +49,9 @@ public class ProductModel {
         if (amount < 0) {
             return false;
         }
+        if (quantity != null && quantity < 1) {
+            return false;
+        }
         for (Map.Entry<String, String> property : description.entrySet()) {
             if (property.getKey() == null || property.getValue() == null || property.getKey().isEmpty() || property.getValue().isEmpty()) {
                 return false;
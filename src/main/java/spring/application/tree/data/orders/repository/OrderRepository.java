@@ -1,56 +1,82 @@
 package spring.application.tree.data.orders.repository;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.conf.RuntimeProperty;
+import com.mysql.cj.jdbc.JdbcConnection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.tomcat.util.buf.StringUtils;
 import org.springframework.dao.DataAccessException;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.stringtemplate.v4.ST;
 import spring.application.tree.data.exceptions.InvalidAttributesException;
 import spring.application.tree.data.orders.attributes.OrderStatus;
+import spring.application.tree.data.orders.models.OrderCursor;
 import spring.application.tree.data.orders.models.OrderModel;
+import spring.application.tree.data.orders.models.OrderPageModel;
 import spring.application.tree.data.orders.models.ProductModel;
+import spring.application.tree.data.orders.repository.criteria.OrderCriteriaQueryBuilder;
+import spring.application.tree.data.orders.repository.mappers.OperatorOrdersMapper;
 import spring.application.tree.data.orders.repository.mappers.OrderMapper;
+import spring.application.tree.data.orders.repository.mappers.OrderProductMapper;
+import spring.application.tree.data.orders.repository.mappers.OrderWithProductsMapper;
 import spring.application.tree.data.orders.repository.mappers.ProductMapper;
-import spring.application.tree.data.utility.loaders.PropertyResourceLoader;
+import spring.application.tree.data.utility.json.JsonCodec;
+import spring.application.tree.data.utility.loaders.SQLScript;
+import spring.application.tree.data.utility.loaders.SQLScriptRegistry;
+import spring.application.tree.data.utility.models.PairValue;
 import spring.application.tree.data.utility.models.TrioValue;
+import spring.application.tree.data.utility.sql.ParameterBuckets;
 
 import java.math.BigInteger;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Repository
 @RequiredArgsConstructor
 @Slf4j
 public class OrderRepository {
+    private static final int PRODUCT_HYDRATION_BATCH_SIZE = 512;
+    private static final int STREAM_FETCH_SIZE = 256;
+    private static final int MAX_PAGE_SIZE = 1000;
     private final JdbcTemplate jdbcTemplate;
+    private final SQLScriptRegistry sqlScriptRegistry;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final OrderCriteriaQueryBuilder orderCriteriaQueryBuilder;
+    private final JsonCodec jsonCodec;
 
     public List<OrderModel> getOrdersForCustomer(int customerId) throws InvalidAttributesException {
-        if (customerId < 1) {
-            throw new InvalidAttributesException(String.format("Invalid customer ID: %s", customerId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
-        }
-        String ordersSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/getCustomerOrders.sql");
-        String productSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/products/getOrderProducts.sql");
+        MapSqlParameterSource parameters = customerOrdersParameters(customerId, null);
+        String ordersSQL = sqlScriptRegistry.renderTemplate(SQLScript.GET_CUSTOMER_ORDERS_WITH_PRODUCTS, List.of());
         log.debug("Order query: {}\n", ordersSQL);
-        log.debug("Product query: {}\n", productSQL);
         List<OrderModel> orders = new ArrayList<>();
         try {
-            jdbcTemplate.query(ordersSQL, new OrderMapper(orders), customerId);
-            for (OrderModel order : orders) {
-                List<ProductModel> products = new ArrayList<>();
-                jdbcTemplate.query(productSQL, new ProductMapper(products), order.getId());
-                order.setProducts(products);
-            }
+            namedParameterJdbcTemplate.query(ordersSQL, parameters, new OrderWithProductsMapper(orders, jsonCodec));
         } catch (DataAccessException e) {
             log.debug(e.getMessage(), e);
             return new ArrayList<>();
@@ -58,22 +84,31 @@ public class OrderRepository {
         return orders;
     }
 
+    public OrderPageModel getOrdersForCustomer(int customerId, OrderCursor cursor, int limit) throws InvalidAttributesException {
+        validatePageLimit(limit);
+        MapSqlParameterSource parameters = customerOrdersParameters(customerId, cursor).addValue("limit", limit + 1);
+        String ordersSQL = sqlScriptRegistry.renderTemplate(SQLScript.GET_CUSTOMER_ORDERS_WITH_PRODUCTS, Arrays.asList(parameters.getParameterNames()));
+        log.debug("Order page query: {}\n", ordersSQL);
+        return queryPage(ordersSQL, parameters, limit, true);
+    }
+
+    public OrderStream streamOrdersForCustomer(int customerId) throws InvalidAttributesException {
+        MapSqlParameterSource parameters = customerOrdersParameters(customerId, null);
+        String ordersSQL = sqlScriptRegistry.renderTemplate(SQLScript.GET_CUSTOMER_ORDERS, List.of());
+        log.debug("Order stream query: {}\n", ordersSQL);
+        return batchConsumer -> streamOrders(ordersSQL, parameters, batchConsumer);
+    }
+
     public List<OrderModel> getOrdersAssignedToOperator(int operatorId) throws InvalidAttributesException {
         if (operatorId < 1) {
             throw new InvalidAttributesException(String.format("Invalid operator ID: %s", operatorId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String ordersSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/getOrdersAssignedToOperator.sql");
-        String productSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/products/getOrderProducts.sql");
+        String ordersSQL = sqlScriptRegistry.getScript(SQLScript.GET_ORDERS_ASSIGNED_TO_OPERATOR);
         log.debug("Order query: {}", ordersSQL);
-        log.debug("Product query: {}\n", productSQL);
         List<OrderModel> orders = new ArrayList<>();
         try {
             jdbcTemplate.query(ordersSQL, new OrderMapper(orders), operatorId);
-            for (OrderModel order : orders) {
-                List<ProductModel> products = new ArrayList<>();
-                jdbcTemplate.query(productSQL, new ProductMapper(products), order.getId());
-                order.setProducts(products);
-            }
+            hydrateProducts(orders);
         } catch (DataAccessException e) {
             log.debug(e.getMessage(), e);
             return new ArrayList<>();
@@ -81,6 +116,36 @@ public class OrderRepository {
         return orders;
     }
 
+    /**
+     * Orders of every operator in one query, newest first and at most limit per operator when limit is set
+     * @return Operator ID -> Orders, in the requested operator order
+     */
+    public Map<Integer, List<OrderModel>> getOrdersAssignedToOperators(List<Integer> operatorIds, Integer limit) throws InvalidAttributesException {
+        if (operatorIds == null || operatorIds.isEmpty() || operatorIds.stream().anyMatch(id -> id == null || id < 1)) {
+            throw new InvalidAttributesException(String.format("Invalid operator IDs: %s", operatorIds), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+        if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+            throw new InvalidAttributesException(String.format("Invalid page limit: %s, allowed range is 1-%s", limit, MAX_PAGE_SIZE), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+        List<Integer> distinctOperatorIds = operatorIds.stream().distinct().collect(Collectors.toList());
+        MapSqlParameterSource parameters = new MapSqlParameterSource("operatorIds", ParameterBuckets.bucket(distinctOperatorIds));
+        if (limit != null) {
+            parameters.addValue("limit", limit);
+        }
+        String ordersSQL = sqlScriptRegistry.renderTemplate(SQLScript.GET_ORDERS_ASSIGNED_TO_OPERATORS, Arrays.asList(parameters.getParameterNames()));
+        log.debug("Operators orders query: {}", ordersSQL);
+        Map<Integer, List<OrderModel>> operatorToOrders = new LinkedHashMap<>();
+        distinctOperatorIds.forEach(id -> operatorToOrders.put(id, new ArrayList<>()));
+        try {
+            namedParameterJdbcTemplate.query(ordersSQL, parameters, new OperatorOrdersMapper(operatorToOrders));
+            hydrateProducts(operatorToOrders.values().stream().flatMap(List::stream).collect(Collectors.toList()));
+        } catch (DataAccessException e) {
+            log.debug(e.getMessage(), e);
+            distinctOperatorIds.forEach(id -> operatorToOrders.put(id, new ArrayList<>()));
+        }
+        return operatorToOrders;
+    }
+
     public List<OrderModel> getOrdersByCriteria(List<Integer> productIds,
                                                 List<BigInteger> orderNumbers,
                                                 List<Integer> orderStatuses,
@@ -89,48 +154,13 @@ public class OrderRepository {
                                                 Boolean paid,
                                                 Double costBottom,
                                                 Double costTop) throws InvalidAttributesException {
-        StringBuilder exceptionText = new StringBuilder();
-        if (productIds != null && !productIds.isEmpty() && productIds.stream().anyMatch(id -> id < 1)) {
-            exceptionText.append("Invalid product IDs: ").append(productIds);
-        }
-        if (orderNumbers != null && !orderNumbers.isEmpty() && orderNumbers.stream().anyMatch(orderNumber -> orderNumber.intValue() < 1)) {
-            exceptionText.append("Invalid order numbers: ").append(orderNumbers);
-        }
-        if (bookingTimeBottom != null && bookingTimeTop != null && bookingTimeBottom.after(bookingTimeTop)) {
-            exceptionText.append("Invalid booking time range, top: ").append(bookingTimeTop).append(", bottom: ").append(bookingTimeBottom);
-        }
-        if (costBottom != null && costTop != null && costBottom > costTop || costBottom != null && costBottom < 0 || costTop != null && costTop < 0) {
-            exceptionText.append("Invalid cost range, top: ").append(costTop).append(", bottom: ").append(costBottom);
-        }
-        if (!exceptionText.isEmpty()) {
-            throw new InvalidAttributesException(exceptionText.toString(), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
-        }
-        ST ordersTemplateSQL = PropertyResourceLoader.getSQLScriptTemplate("classpath:/sql/orders/getOrdersByCriteria.st");
-        String productSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/products/getOrderProducts.sql");
-        if (productIds != null) {
-            ordersTemplateSQL.add("productIds", StringUtils.join(productIds.stream().map(String::valueOf).collect(Collectors.toList()), ','));
-        }
-        if (orderNumbers != null) {
-            ordersTemplateSQL.add("orderNumbers", StringUtils.join(orderNumbers.stream().map(orderNumber -> String.format("'%s'", orderNumber.toString())).collect(Collectors.toList()), ','));
-        }
-        if (orderStatuses != null) {
-            ordersTemplateSQL.add("orderStatuses", StringUtils.join(orderStatuses.stream().map(orderStatus -> String.format("'%s'", orderStatus)).collect(Collectors.toList()), ','));
-        }
-        ordersTemplateSQL.add("paid", paid);
-        ordersTemplateSQL.add("bookingTimeBottom", bookingTimeBottom);
-        ordersTemplateSQL.add("bookingTimeTop", bookingTimeTop);
-        ordersTemplateSQL.add("costBottom", costBottom);
-        ordersTemplateSQL.add("costTop", costTop);
-        log.debug("Order by criteria query: {}\n", ordersTemplateSQL.render());
-        log.debug("Product query: {}\n", productSQL);
+        validateCriteria(productIds, orderNumbers, bookingTimeBottom, bookingTimeTop, costBottom, costTop);
+        PairValue<String, MapSqlParameterSource> ordersSQL = orderCriteriaQueryBuilder.build(productIds, orderNumbers, orderStatuses, bookingTimeBottom, bookingTimeTop, paid, costBottom, costTop);
+        log.debug("Order by criteria query: {}, parameters: {}\n", ordersSQL.getKey(), ordersSQL.getValue().getValues());
         List<OrderModel> orders = new ArrayList<>();
         try {
-            jdbcTemplate.query(ordersTemplateSQL.render(), new OrderMapper(orders));
-            for (OrderModel order : orders) {
-                List<ProductModel> products = new ArrayList<>();
-                jdbcTemplate.query(productSQL, new ProductMapper(products), order.getId());
-                order.setProducts(products);
-            }
+            namedParameterJdbcTemplate.query(ordersSQL.getKey(), ordersSQL.getValue(), new OrderMapper(orders));
+            hydrateProducts(orders);
         } catch (DataAccessException e) {
             log.debug(e.getMessage(), e);
             return new ArrayList<>();
@@ -138,19 +168,44 @@ public class OrderRepository {
         return orders;
     }
 
+    public OrderPageModel getOrdersByCriteria(List<Integer> productIds,
+                                              List<BigInteger> orderNumbers,
+                                              List<Integer> orderStatuses,
+                                              Date bookingTimeBottom,
+                                              Date bookingTimeTop,
+                                              Boolean paid,
+                                              Double costBottom,
+                                              Double costTop,
+                                              OrderCursor cursor,
+                                              int limit) throws InvalidAttributesException {
+        validateCriteria(productIds, orderNumbers, bookingTimeBottom, bookingTimeTop, costBottom, costTop);
+        validatePageLimit(limit);
+        PairValue<String, MapSqlParameterSource> ordersSQL = orderCriteriaQueryBuilder.build(productIds, orderNumbers, orderStatuses, bookingTimeBottom, bookingTimeTop, paid, costBottom, costTop, cursor, limit + 1);
+        log.debug("Order page by criteria query: {}, parameters: {}\n", ordersSQL.getKey(), ordersSQL.getValue().getValues());
+        return queryPage(ordersSQL.getKey(), ordersSQL.getValue(), limit, false);
+    }
+
+    public OrderStream streamOrdersByCriteria(List<Integer> productIds,
+                                              List<BigInteger> orderNumbers,
+                                              List<Integer> orderStatuses,
+                                              Date bookingTimeBottom,
+                                              Date bookingTimeTop,
+                                              Boolean paid,
+                                              Double costBottom,
+                                              Double costTop) throws InvalidAttributesException {
+        validateCriteria(productIds, orderNumbers, bookingTimeBottom, bookingTimeTop, costBottom, costTop);
+        PairValue<String, MapSqlParameterSource> ordersSQL = orderCriteriaQueryBuilder.build(productIds, orderNumbers, orderStatuses, bookingTimeBottom, bookingTimeTop, paid, costBottom, costTop);
+        log.debug("Order stream by criteria query: {}, parameters: {}\n", ordersSQL.getKey(), ordersSQL.getValue().getValues());
+        return batchConsumer -> streamOrders(ordersSQL.getKey(), ordersSQL.getValue(), batchConsumer);
+    }
+
     public List<OrderModel> getAvailableOrders() {
-        String getAvailableOrdersSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/getAvailableOrders.sql");
-        String productSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/products/getOrderProducts.sql");
+        String getAvailableOrdersSQL = sqlScriptRegistry.renderTemplate(SQLScript.GET_AVAILABLE_ORDERS, List.of());
         log.debug("Get available orders query: {}", getAvailableOrdersSQL);
-        log.debug("Product query: {}\n", productSQL);
         List<OrderModel> orders = new ArrayList<>();
         try {
             jdbcTemplate.query(getAvailableOrdersSQL, new OrderMapper(orders));
-            for (OrderModel order : orders) {
-                List<ProductModel> products = new ArrayList<>();
-                jdbcTemplate.query(productSQL, new ProductMapper(products), order.getId());
-                order.setProducts(products);
-            }
+            hydrateProducts(orders);
         } catch (DataAccessException e) {
             log.debug(e.getMessage(), e);
             return new ArrayList<>();
@@ -158,14 +213,48 @@ public class OrderRepository {
         return orders;
     }
 
+    public OrderPageModel getAvailableOrders(OrderCursor cursor, int limit) throws InvalidAttributesException {
+        validatePageLimit(limit);
+        MapSqlParameterSource parameters = cursorParameters(cursor).addValue("limit", limit + 1);
+        String getAvailableOrdersSQL = sqlScriptRegistry.renderTemplate(SQLScript.GET_AVAILABLE_ORDERS, Arrays.asList(parameters.getParameterNames()));
+        log.debug("Get available orders page query: {}", getAvailableOrdersSQL);
+        return queryPage(getAvailableOrdersSQL, parameters, limit, false);
+    }
+
+    public OrderStream streamAvailableOrders() {
+        String getAvailableOrdersSQL = sqlScriptRegistry.renderTemplate(SQLScript.GET_AVAILABLE_ORDERS, List.of());
+        log.debug("Stream available orders query: {}", getAvailableOrdersSQL);
+        return batchConsumer -> streamOrders(getAvailableOrdersSQL, new MapSqlParameterSource(), batchConsumer);
+    }
+
     public List<ProductModel> getProducts() {
-        String getProductsSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/products/getProducts.sql");
+        String getProductsSQL = sqlScriptRegistry.getScript(SQLScript.GET_PRODUCTS);
         log.debug("Get products query: {}", getProductsSQL);
         List<ProductModel> products = new ArrayList<>();
         try {
-            jdbcTemplate.query(getProductsSQL, new ProductMapper(products));
+            jdbcTemplate.query(getProductsSQL, new ProductMapper(products, jsonCodec));
         } catch (DataAccessException e) {
             log.error(e.getMessage(), e);
+            throw new RuntimeException(e);
+        }
+        return products;
+    }
+
+    public List<ProductModel> getProducts(Collection<Integer> productIds) throws InvalidAttributesException {
+        if (productIds == null || productIds.stream().anyMatch(productId -> productId == null || productId < 1)) {
+            throw new InvalidAttributesException(String.format("Invalid product IDs: %s", productIds), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+        List<ProductModel> products = new ArrayList<>();
+        if (productIds.isEmpty()) {
+            return products;
+        }
+        String getProductsByIdsSQL = sqlScriptRegistry.getScript(SQLScript.GET_PRODUCTS_BY_IDS);
+        log.debug("Get products by IDs query: {}", getProductsByIdsSQL);
+        try {
+            namedParameterJdbcTemplate.query(getProductsByIdsSQL, new MapSqlParameterSource("productIds", productIds), new ProductMapper(products, jsonCodec));
+        } catch (DataAccessException e) {
+            log.error(e.getMessage(), e);
+            throw new RuntimeException(e);
         }
         return products;
     }
@@ -174,33 +263,49 @@ public class OrderRepository {
         if (orderId < 1) {
             throw new InvalidAttributesException(String.format("Invalid order ID: %s", orderId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String getOrderedProductsSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/products/getOrderProducts.sql");
+        String getOrderedProductsSQL = sqlScriptRegistry.getScript(SQLScript.GET_ORDER_PRODUCTS);
         log.debug("Get ordered products query: {}", getOrderedProductsSQL);
         List<ProductModel> products = new ArrayList<>();
         try {
-            jdbcTemplate.query(getOrderedProductsSQL, new ProductMapper(products), orderId);
+            jdbcTemplate.query(getOrderedProductsSQL, ProductMapper.orderLines(products, jsonCodec), orderId);
         } catch (DataAccessException e) {
             log.error(e.getMessage(), e);
         }
         return products;
     }
 
+    /**
+     * Locks the lines of the order until the surrounding transaction ends
+     * @return Product ID -> Units held by the order
+     */
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
+    public Map<Integer, Integer> lockOrderLines(int orderId) throws InvalidAttributesException {
+        if (orderId < 1) {
+            throw new InvalidAttributesException(String.format("Invalid order ID: %s", orderId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+        String lockOrderLinesSQL = sqlScriptRegistry.getScript(SQLScript.LOCK_ORDER_LINES);
+        log.debug("Lock order lines query: {}", lockOrderLinesSQL);
+        Map<Integer, Integer> lines = new TreeMap<>();
+        try {
+            jdbcTemplate.query(lockOrderLinesSQL, (rs) -> {
+                lines.put(rs.getInt("product_id"), rs.getInt("quantity"));
+            }, orderId);
+        } catch (DataAccessException e) {
+            log.error(e.getMessage(), e);
+            throw new RuntimeException(e);
+        }
+        return lines;
+    }
+
     public OrderModel getOrderById(int orderId) throws InvalidAttributesException {
         if (orderId < 1) {
             throw new InvalidAttributesException(String.format("Invalid order ID: %s", orderId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String getOrderById = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/getOrderById.sql");
-        String productSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/products/getOrderProducts.sql");
+        String getOrderById = sqlScriptRegistry.getScript(SQLScript.GET_ORDER_WITH_PRODUCTS_BY_ID);
         log.debug("Get order by ID query: {}", getOrderById);
-        log.debug("Product query: {}\n", productSQL);
         List<OrderModel> orders = new ArrayList<>();
         try {
-            jdbcTemplate.query(getOrderById, new OrderMapper(orders), orderId);
-            for (OrderModel order : orders) {
-                List<ProductModel> products = new ArrayList<>();
-                jdbcTemplate.query(productSQL, new ProductMapper(products), order.getId());
-                order.setProducts(products);
-            }
+            jdbcTemplate.query(getOrderById, new OrderWithProductsMapper(orders, jsonCodec), orderId);
         } catch (DataAccessException e) {
             log.error(e.getMessage(), e);
         }
@@ -211,11 +316,11 @@ public class OrderRepository {
         if (productId < 1) {
             throw new InvalidAttributesException(String.format("Invalid order ID: %s", productId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String getProductSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/products/getProduct.sql");
+        String getProductSQL = sqlScriptRegistry.getScript(SQLScript.GET_PRODUCT);
         log.debug("Get product query: {}", getProductSQL);
         List<ProductModel> products = new ArrayList<>();
         try {
-            jdbcTemplate.query(getProductSQL, new ProductMapper(products), productId);
+            jdbcTemplate.query(getProductSQL, new ProductMapper(products, jsonCodec), productId);
         } catch (DataAccessException e) {
             log.error(e.getMessage(), e);
         }
@@ -226,7 +331,7 @@ public class OrderRepository {
         if (!order.validateData()) {
             throw new InvalidAttributesException(String.format("Invalid order model: %s", order), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String createOrderSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/createOrder.sql");
+        String createOrderSQL = sqlScriptRegistry.getScript(SQLScript.CREATE_ORDER);
         log.debug("Create order query: {}", createOrderSQL);
         Integer orderId = null;
         try {
@@ -250,7 +355,7 @@ public class OrderRepository {
         if (!order.validateDeliveryData() || order.getId() == null || order.getId() < 1) {
             throw new InvalidAttributesException(String.format("Invalid order model: %s", order), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String updateOrderDeliveryDetailsSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/updateOrderDeliveryDetails.sql");
+        String updateOrderDeliveryDetailsSQL = sqlScriptRegistry.getScript(SQLScript.UPDATE_ORDER_DELIVERY_DETAILS);
         log.debug("Create order query: {}", updateOrderDeliveryDetailsSQL);
         try {
             jdbcTemplate.update(updateOrderDeliveryDetailsSQL,
@@ -267,7 +372,7 @@ public class OrderRepository {
         if (orderId < 1) {
             throw new InvalidAttributesException(String.format("Invalid order ID: %s", orderId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String transferOrderIntoPaidStatusSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/transferOrderIntoPaidStatus.sql");
+        String transferOrderIntoPaidStatusSQL = sqlScriptRegistry.getScript(SQLScript.TRANSFER_ORDER_INTO_PAID_STATUS);
         log.debug("Update order status query: {}", transferOrderIntoPaidStatusSQL);
         try {
             jdbcTemplate.update(transferOrderIntoPaidStatusSQL, OrderStatus.PAID.getOrdinal(), orderId);
@@ -281,7 +386,7 @@ public class OrderRepository {
         if (orderId < 1) {
             throw new InvalidAttributesException(String.format("Invalid order ID: %s", orderId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String updateOrderStatusSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/updateOrderStatus.sql");
+        String updateOrderStatusSQL = sqlScriptRegistry.getScript(SQLScript.UPDATE_ORDER_STATUS);
         log.debug("Update order status query: {}", updateOrderStatusSQL);
         try {
             jdbcTemplate.update(updateOrderStatusSQL, newStatus, orderId);
@@ -295,7 +400,7 @@ public class OrderRepository {
         if (orderId < 1) {
             throw new InvalidAttributesException(String.format("Invalid order ID: %s", orderId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String deleteOrderSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/deleteOrder.sql");
+        String deleteOrderSQL = sqlScriptRegistry.getScript(SQLScript.DELETE_ORDER);
         log.debug("Delete order query: {}", deleteOrderSQL);
         try {
             jdbcTemplate.update(deleteOrderSQL, orderId);
@@ -305,85 +410,132 @@ public class OrderRepository {
         }
     }
 
+    /**
+     * Locks the requested products, decrements their stock and adds the units to the order lines,
+     * each step being a single statement or batch regardless of the basket size
+     * @param lines Product ID -> Units
+     * @return Product ID -> Units that could not be assigned because the product is unavailable or out of stock
+     */
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
-    public void assignProductsToOrder(int orderId, List<Integer> products) throws InvalidAttributesException {
-        if (products == null || products.isEmpty() || products.stream().anyMatch(product -> product < 1) || orderId < 1) {
-            throw new InvalidAttributesException(String.format("Invalid products: %s, order ID: %s", products, orderId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
-        }
-        String assignProductToOrderSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/products/assignProductToOrder.sql");
-        log.debug("Assign products query: {}", assignProductToOrderSQL);
+    public Map<Integer, Integer> assignProductsToOrder(int orderId, Map<Integer, Integer> lines) throws InvalidAttributesException {
+        if (lines == null || lines.isEmpty() || orderId < 1 || !validateLines(lines)) {
+            throw new InvalidAttributesException(String.format("Invalid products: %s, order ID: %s", lines, orderId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+        String lockAvailableProductsSQL = sqlScriptRegistry.getScript(SQLScript.LOCK_AVAILABLE_PRODUCTS);
+        String decrementProductAmountSQL = sqlScriptRegistry.getScript(SQLScript.DECREMENT_PRODUCT_AMOUNT);
+        String assignProductToOrderSQL = sqlScriptRegistry.getScript(SQLScript.ASSIGN_PRODUCT_TO_ORDER);
+        log.debug("Assign products queries: {}, {}, {}", lockAvailableProductsSQL, decrementProductAmountSQL, assignProductToOrderSQL);
+        Map<Integer, Integer> stock = new HashMap<>();
+        Map<Integer, Integer> unassigned = new TreeMap<>();
+        List<Object[]> decrements = new ArrayList<>();
+        List<Object[]> assignments = new ArrayList<>();
         try {
-            for (Integer productId : products) {
-                jdbcTemplate.update(assignProductToOrderSQL, orderId, productId);
+            namedParameterJdbcTemplate.query(lockAvailableProductsSQL, new MapSqlParameterSource("productIds", new TreeSet<>(lines.keySet())), (rs) -> {
+                stock.put(rs.getInt("id"), rs.getInt("amount"));
+            });
+            for (Map.Entry<Integer, Integer> line : new TreeMap<>(lines).entrySet()) {
+                int assigned = Math.min(line.getValue(), stock.getOrDefault(line.getKey(), 0));
+                if (assigned < line.getValue()) {
+                    unassigned.put(line.getKey(), line.getValue() - assigned);
+                }
+                if (assigned > 0) {
+                    decrements.add(new Object[]{assigned, line.getKey()});
+                    assignments.add(new Object[]{orderId, line.getKey(), assigned});
+                }
+            }
+            if (!assignments.isEmpty()) {
+                jdbcTemplate.batchUpdate(decrementProductAmountSQL, decrements);
+                jdbcTemplate.batchUpdate(assignProductToOrderSQL, assignments);
             }
         } catch (DataAccessException e) {
             log.error(e.getMessage(), e);
             throw new RuntimeException(e);
         }
+        return unassigned;
     }
 
+    /**
+     * @param units Product ID -> Units returned to stock
+     */
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
-    public void incrementProductAmount(List<Integer> productIds, int amount) throws InvalidAttributesException {
-        if (productIds == null || productIds.isEmpty() || productIds.stream().anyMatch(id -> id < 1) || amount < 1) {
-            throw new InvalidAttributesException(String.format("Invalid product IDs: %s, amount: %s", productIds, amount), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+    public void incrementProductAmount(Map<Integer, Integer> units) throws InvalidAttributesException {
+        if (units == null || units.isEmpty() || !validateLines(units)) {
+            throw new InvalidAttributesException(String.format("Invalid product units: %s", units), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String incrementProductAmountSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/products/incrementProductAmount.sql");
+        String incrementProductAmountSQL = sqlScriptRegistry.getScript(SQLScript.INCREMENT_PRODUCT_AMOUNT);
+        log.debug("Increment product amount query: {}", incrementProductAmountSQL);
         try {
-            for (Integer productId : productIds) {
-                jdbcTemplate.update(incrementProductAmountSQL, amount, productId);
-            }
+            jdbcTemplate.batchUpdate(incrementProductAmountSQL, new TreeMap<>(units).entrySet().stream()
+                    .map(increment -> new Object[]{increment.getValue(), increment.getKey()})
+                    .collect(Collectors.toList()));
         } catch (DataAccessException e) {
             log.error(e.getMessage(), e);
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Lowers the quantity of the order lines, a line left without units is deleted
+     * @param units Product ID -> Units, every line of the order when null
+     */
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
-    public void removeProductsFromOrder(int orderId, List<Integer> productIds) throws InvalidAttributesException {
-        if (orderId < 1 || (productIds != null && (productIds.isEmpty() || productIds.stream().anyMatch(productId -> productId < 1)))) {
-            throw new InvalidAttributesException(String.format("Invalid order ID: %s, products: %s", orderId, productIds), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+    public void removeProductsFromOrder(int orderId, Map<Integer, Integer> units) throws InvalidAttributesException {
+        if (orderId < 1 || (units != null && (units.isEmpty() || !validateLines(units)))) {
+            throw new InvalidAttributesException(String.format("Invalid order ID: %s, products: %s", orderId, units), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        ST removeProductsFromOrderSQL = PropertyResourceLoader.getSQLScriptTemplate("classpath:/sql/orders/products/removeProductsFromOrder.st");
-        removeProductsFromOrderSQL.add("orderId", orderId);
-        log.debug("Remove products from order query: {}", removeProductsFromOrderSQL.render());
         try {
-            if (productIds != null) {
-                for (Integer productId : productIds) {
-                    if (removeProductsFromOrderSQL.getAttribute("productId") != null) {
-                        removeProductsFromOrderSQL.remove("productId");
-                    }
-                    removeProductsFromOrderSQL.add("productId", productId);
-                    jdbcTemplate.update(removeProductsFromOrderSQL.render());
-                }
+            if (units == null) {
+                String removeProductsFromOrderSQL = sqlScriptRegistry.getScript(SQLScript.REMOVE_PRODUCTS_FROM_ORDER);
+                log.debug("Remove products from order query: {}", removeProductsFromOrderSQL);
+                jdbcTemplate.update(removeProductsFromOrderSQL, orderId);
+                return;
             }
+            String removeProductFromOrderSQL = sqlScriptRegistry.getScript(SQLScript.REMOVE_PRODUCT_FROM_ORDER);
+            String decrementOrderLineQuantitySQL = sqlScriptRegistry.getScript(SQLScript.DECREMENT_ORDER_LINE_QUANTITY);
+            log.debug("Remove products from order queries: {}, {}", removeProductFromOrderSQL, decrementOrderLineQuantitySQL);
+            List<Map.Entry<Integer, Integer>> removals = new ArrayList<>(new TreeMap<>(units).entrySet());
+            jdbcTemplate.batchUpdate(removeProductFromOrderSQL, removals.stream()
+                    .map(removal -> new Object[]{orderId, removal.getKey(), removal.getValue()})
+                    .collect(Collectors.toList()));
+            jdbcTemplate.batchUpdate(decrementOrderLineQuantitySQL, removals.stream()
+                    .map(removal -> new Object[]{removal.getValue(), orderId, removal.getKey(), removal.getValue()})
+                    .collect(Collectors.toList()));
         } catch (DataAccessException e) {
             log.error(e.getMessage(), e);
             throw new RuntimeException(e);
         }
     }
 
-    public void createProduct(ProductModel product) throws InvalidAttributesException {
+    /**
+     * @return ID of the created product, null when a product with the same name already exists
+     */
+    public Integer createProduct(ProductModel product) throws InvalidAttributesException {
         if (!product.validateData()) {
             throw new InvalidAttributesException(String.format("Invalid product model: %s", product), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String createProductSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/products/createProduct.sql");
+        String createProductSQL = sqlScriptRegistry.getScript(SQLScript.CREATE_PRODUCT);
         log.debug("Create product query: {}", createProductSQL);
+        Integer productId = null;
         try {
-            jdbcTemplate.update(createProductSQL, product.getName(), product.getPrice(), product.getAmount(), product.isAvailable(), new ObjectMapper().writeValueAsString(product.getDescription()));
+            int created = jdbcTemplate.update(createProductSQL, product.getName(), product.getPrice(), product.getAmount(), product.isAvailable(), jsonCodec.writeProductDescription(product.getDescription()));
+            if (created > 0) {
+                productId = jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID();", Integer.class);
+            }
         } catch (DataAccessException | JsonProcessingException e) {
             log.error(e.getMessage(), e);
             throw new RuntimeException(e);
         }
+        return productId;
     }
 
     public void updateProduct(ProductModel product) throws InvalidAttributesException {
         if (!product.validateData() || product.getId() == null || product.getId() < 1) {
             throw new InvalidAttributesException(String.format("Invalid product model: %s", product), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String updateProductSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/products/updateProduct.sql");
+        String updateProductSQL = sqlScriptRegistry.getScript(SQLScript.UPDATE_PRODUCT);
         log.debug("Update product query: {}", updateProductSQL);
         try {
-            jdbcTemplate.update(updateProductSQL, product.getPrice(), product.getAmount(), product.isAvailable(), new ObjectMapper().writeValueAsString(product.getDescription()), product.getId());
+            jdbcTemplate.update(updateProductSQL, product.getPrice(), product.getAmount(), product.isAvailable(), jsonCodec.writeProductDescription(product.getDescription()), product.getId());
         } catch (DataAccessException | JsonProcessingException e) {
             log.error(e.getMessage(), e);
             throw new RuntimeException(e);
@@ -394,7 +546,7 @@ public class OrderRepository {
         if (productId < 1) {
             throw new InvalidAttributesException(String.format("Invalid product ID: %s", productId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String deleteProductSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/products/deleteProduct.sql");
+        String deleteProductSQL = sqlScriptRegistry.getScript(SQLScript.DELETE_PRODUCT);
         try {
             jdbcTemplate.update(deleteProductSQL, productId);
         } catch (DataAccessException e) {
@@ -407,7 +559,7 @@ public class OrderRepository {
         if (productId < 1) {
             throw new InvalidAttributesException(String.format("Invalid product ID: %s", productId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String countProductAssignationSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/products/countProductAssignation.sql");
+        String countProductAssignationSQL = sqlScriptRegistry.getScript(SQLScript.COUNT_PRODUCT_ASSIGNATION);
         Integer count = null;
         try {
             count = jdbcTemplate.queryForObject(countProductAssignationSQL, Integer.class, productId);
@@ -421,7 +573,7 @@ public class OrderRepository {
         if (name == null || name.isEmpty()) {
             throw new InvalidAttributesException(String.format("Invalid product name: %s", name), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String countProductsByNameSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/products/countProductsByName.sql");
+        String countProductsByNameSQL = sqlScriptRegistry.getScript(SQLScript.COUNT_PRODUCTS_BY_NAME);
         Integer count = null;
         try {
             count = jdbcTemplate.queryForObject(countProductsByNameSQL, Integer.class, name);
@@ -431,24 +583,26 @@ public class OrderRepository {
         return count;
     }
 
-    public BigInteger getLatestOrderNumber() {
-        String getLatestOrderNumberSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/getLatestOrderNumber.sql");
-        BigInteger result = new BigInteger("100000000");
-        try {
-            String resultString = jdbcTemplate.queryForObject(getLatestOrderNumberSQL, String.class);
-            if (resultString != null) {
-                result = new BigInteger(resultString);
-            }
-        } catch (EmptyResultDataAccessException e) {
-            return result;
-        } catch (DataAccessException e) {
-            log.error(e.getMessage(), e);
-        }
-        return result;
+    /**
+     * Reserves [bound - blockSize, bound) from the sequence in its own transaction, returns bound
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public long reserveOrderNumbers(String sequence, int blockSize) {
+        String reserveOrderNumbersSQL = sqlScriptRegistry.getScript(SQLScript.RESERVE_ORDER_NUMBERS);
+        String getReservedOrderNumberBoundSQL = sqlScriptRegistry.getScript(SQLScript.GET_RESERVED_ORDER_NUMBER_BOUND);
+        int updated = jdbcTemplate.update(reserveOrderNumbersSQL, blockSize, sequence);
+        if (updated != 1) {
+            throw new IllegalStateException(String.format("Order number sequence is missing: %s", sequence));
+        }
+        Long bound = jdbcTemplate.queryForObject(getReservedOrderNumberBoundSQL, Long.class);
+        if (bound == null) {
+            throw new IllegalStateException(String.format("Order number sequence returned no value: %s", sequence));
+        }
+        return bound;
     }
 
     public List<TrioValue<Integer, String, Integer>> getOrderTakenNumberPerOperator() {
-        String getOrderTakenNumberPerOperatorSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/getOrdersTakenNumberPerOperator.sql");
+        String getOrderTakenNumberPerOperatorSQL = sqlScriptRegistry.getScript(SQLScript.GET_ORDERS_TAKEN_NUMBER_PER_OPERATOR);
         List<TrioValue<Integer, String, Integer>> result = new ArrayList<>();
         try {
             jdbcTemplate.query(getOrderTakenNumberPerOperatorSQL, (rs) -> {
@@ -460,33 +614,236 @@ public class OrderRepository {
         return result;
     }
 
-    public void assignOrderToOperator(int orderId, int operatorId) throws InvalidAttributesException {
-        if (orderId < 1 || operatorId < 1) {
-            throw new InvalidAttributesException(String.format("Invalid order ID: %s, operator ID: %s", orderId, operatorId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+    /**
+     * Order IDs held by the operator, locked until the surrounding transaction ends
+     */
+    public List<Integer> lockOrdersAssignedToOperator(int operatorId) throws InvalidAttributesException {
+        if (operatorId < 1) {
+            throw new InvalidAttributesException(String.format("Invalid operator ID: %s", operatorId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String assignOrderToOperatorSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/orders/assignOrderToOperator.sql");
+        String lockOrdersAssignedToOperatorSQL = sqlScriptRegistry.getScript(SQLScript.LOCK_ORDERS_ASSIGNED_TO_OPERATOR);
+        log.debug("Lock operator orders query: {}", lockOrdersAssignedToOperatorSQL);
+        return jdbcTemplate.queryForList(lockOrdersAssignedToOperatorSQL, Integer.class, operatorId);
+    }
+
+    /**
+     * Upserts every assignment in one batch, an order already held by another operator is moved
+     * @param orderToOperator Order ID -> Operator ID
+     */
+    public void assignOrdersToOperators(Map<Integer, Integer> orderToOperator) throws InvalidAttributesException {
+        if (orderToOperator.entrySet().stream().anyMatch(entry -> entry.getKey() == null || entry.getKey() < 1 || entry.getValue() == null || entry.getValue() < 1)) {
+            throw new InvalidAttributesException(String.format("Invalid order to operator assignments: %s", orderToOperator), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+        if (orderToOperator.isEmpty()) {
+            return;
+        }
+        String assignOrderToOperatorSQL = sqlScriptRegistry.getScript(SQLScript.ASSIGN_ORDER_TO_OPERATOR);
+        log.debug("Assign orders to operators query: {}, batch: {}", assignOrderToOperatorSQL, orderToOperator.size());
         try {
-            jdbcTemplate.update(assignOrderToOperatorSQL, operatorId, orderId, operatorId);
+            jdbcTemplate.batchUpdate(assignOrderToOperatorSQL, new TreeMap<>(orderToOperator).entrySet().stream()
+                    .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                    .collect(Collectors.toList()));
         } catch (DataAccessException e) {
             log.error(e.getMessage(), e);
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Oldest orders nobody holds yet
+     */
+    public List<Integer> getUnassignedOrderIds(int limit) throws InvalidAttributesException {
+        if (limit < 1) {
+            throw new InvalidAttributesException(String.format("Invalid limit: %s", limit), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+        String getUnassignedOrderIdsSQL = sqlScriptRegistry.getScript(SQLScript.GET_UNASSIGNED_ORDER_IDS);
+        log.debug("Get unassigned order IDs query: {}", getUnassignedOrderIdsSQL);
+        return jdbcTemplate.queryForList(getUnassignedOrderIdsSQL, Integer.class, limit);
+    }
+
+    /**
+     * Assigns only orders nobody holds yet, an order taken meanwhile keeps its operator
+     * @param orderToOperator Order ID -> Operator ID
+     * @return Order ID -> Operator ID holding the order after the assignment
+     */
+    public Map<Integer, Integer> assignAvailableOrdersToOperators(Map<Integer, Integer> orderToOperator) throws InvalidAttributesException {
+        if (orderToOperator.entrySet().stream().anyMatch(entry -> entry.getKey() == null || entry.getKey() < 1 || entry.getValue() == null || entry.getValue() < 1)) {
+            throw new InvalidAttributesException(String.format("Invalid order to operator assignments: %s", orderToOperator), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+        Map<Integer, Integer> holders = new HashMap<>();
+        if (orderToOperator.isEmpty()) {
+            return holders;
+        }
+        String assignAvailableOrderToOperatorSQL = sqlScriptRegistry.getScript(SQLScript.ASSIGN_AVAILABLE_ORDER_TO_OPERATOR);
+        String getOrderOperatorsSQL = sqlScriptRegistry.getScript(SQLScript.GET_ORDER_OPERATORS);
+        log.debug("Assign available orders to operators query: {}, batch: {}", assignAvailableOrderToOperatorSQL, orderToOperator.size());
+        jdbcTemplate.batchUpdate(assignAvailableOrderToOperatorSQL, new TreeMap<>(orderToOperator).entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .collect(Collectors.toList()));
+        namedParameterJdbcTemplate.query(getOrderOperatorsSQL, new MapSqlParameterSource("orderIds", new TreeSet<>(orderToOperator.keySet())), (rs) -> {
+            holders.put(rs.getInt("order_id"), rs.getInt("operator_id"));
+        });
+        return holders;
+    }
+
     public void removeOrdersFromOperator(int operatorId, List<Integer> orderIds) throws InvalidAttributesException {
-        if (operatorId < 1 || (orderIds != null && (orderIds.isEmpty() || orderIds.stream().anyMatch(id -> id < 1)))) {
+        if (operatorId < 1 || (orderIds != null && (orderIds.isEmpty() || orderIds.stream().anyMatch(id -> id == null || id < 1)))) {
             throw new InvalidAttributesException(String.format("Invalid operator ID: %s, order IDs: %s", operatorId, orderIds), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        ST removeOrdersFromOperatorSQL = PropertyResourceLoader.getSQLScriptTemplate("classpath:/sql/orders/removeOrdersFromOperator.st");
-        removeOrdersFromOperatorSQL.add("operatorId", operatorId);
+        MapSqlParameterSource parameters = new MapSqlParameterSource("operatorId", operatorId);
         if (orderIds != null) {
-            removeOrdersFromOperatorSQL.add("orderIds", StringUtils.join(orderIds.stream().map(String::valueOf).collect(Collectors.toList()), ','));
+            parameters.addValue("orderIds", ParameterBuckets.bucket(orderIds.stream().distinct().collect(Collectors.toList())));
         }
+        String removeOrdersFromOperatorSQL = sqlScriptRegistry.renderTemplate(SQLScript.REMOVE_ORDERS_FROM_OPERATOR, Arrays.asList(parameters.getParameterNames()));
+        log.debug("Remove orders from operator query: {}", removeOrdersFromOperatorSQL);
         try {
-            jdbcTemplate.update(removeOrdersFromOperatorSQL.render());
+            namedParameterJdbcTemplate.update(removeOrdersFromOperatorSQL, parameters);
         } catch (DataAccessException e) {
             log.error(e.getMessage(), e);
             throw new RuntimeException(e);
         }
     }
+
+    private void validateCriteria(List<Integer> productIds,
+                                  List<BigInteger> orderNumbers,
+                                  Date bookingTimeBottom,
+                                  Date bookingTimeTop,
+                                  Double costBottom,
+                                  Double costTop) throws InvalidAttributesException {
+        StringBuilder exceptionText = new StringBuilder();
+        if (productIds != null && !productIds.isEmpty() && productIds.stream().anyMatch(id -> id < 1)) {
+            exceptionText.append("Invalid product IDs: ").append(productIds);
+        }
+        if (orderNumbers != null && !orderNumbers.isEmpty() && orderNumbers.stream().anyMatch(orderNumber -> orderNumber.intValue() < 1)) {
+            exceptionText.append("Invalid order numbers: ").append(orderNumbers);
+        }
+        if (bookingTimeBottom != null && bookingTimeTop != null && bookingTimeBottom.after(bookingTimeTop)) {
+            exceptionText.append("Invalid booking time range, top: ").append(bookingTimeTop).append(", bottom: ").append(bookingTimeBottom);
+        }
+        if (costBottom != null && costTop != null && costBottom > costTop || costBottom != null && costBottom < 0 || costTop != null && costTop < 0) {
+            exceptionText.append("Invalid cost range, top: ").append(costTop).append(", bottom: ").append(costBottom);
+        }
+        if (!exceptionText.isEmpty()) {
+            throw new InvalidAttributesException(exceptionText.toString(), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+    }
+
+    private boolean validateLines(Map<Integer, Integer> lines) {
+        return lines.entrySet().stream().allMatch(line -> line.getKey() != null && line.getKey() > 0 && line.getValue() != null && line.getValue() > 0);
+    }
+
+    private void validatePageLimit(int limit) throws InvalidAttributesException {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidAttributesException(String.format("Invalid page limit: %s, allowed range is 1-%s", limit, MAX_PAGE_SIZE), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+    }
+
+    private MapSqlParameterSource customerOrdersParameters(int customerId, OrderCursor cursor) throws InvalidAttributesException {
+        if (customerId < 1) {
+            throw new InvalidAttributesException(String.format("Invalid customer ID: %s", customerId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+        return cursorParameters(cursor).addValue("customerId", customerId);
+    }
+
+    private MapSqlParameterSource cursorParameters(OrderCursor cursor) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        if (cursor != null) {
+            parameters.addValue("cursor", true);
+            parameters.addValue("cursorTime", new Timestamp(cursor.getBookingTime().getTime()));
+            parameters.addValue("cursorId", cursor.getId());
+        }
+        return parameters;
+    }
+
+    /**
+     * @param productsJoined the query already selects the order lines, otherwise products are hydrated afterwards
+     */
+    private OrderPageModel queryPage(String ordersSQL, MapSqlParameterSource parameters, int limit, boolean productsJoined) {
+        List<OrderModel> orders = new ArrayList<>();
+        try {
+            namedParameterJdbcTemplate.query(ordersSQL, parameters, productsJoined ? new OrderWithProductsMapper(orders, jsonCodec) : new OrderMapper(orders));
+        } catch (DataAccessException e) {
+            log.debug(e.getMessage(), e);
+            return new OrderPageModel(new ArrayList<>(), null);
+        }
+        String nextCursor = null;
+        if (orders.size() > limit) {
+            orders = new ArrayList<>(orders.subList(0, limit));
+            nextCursor = OrderCursor.of(orders.get(limit - 1)).encode();
+        }
+        if (!productsJoined) {
+            hydrateProducts(orders);
+        }
+        return new OrderPageModel(orders, nextCursor);
+    }
+
+    /**
+     * Reads the orders through a server side cursor and hydrates each fetched batch on the cursor's own connection,
+     * so an open stream holds exactly one pooled connection until the client has read the whole response.
+     * Cursor fetch is switched on for the borrowed connection only and restored before it goes back to the pool,
+     * the statement is prepared outside of the statement cache so it never shares a handle prepared without a cursor
+     */
+    private void streamOrders(String ordersSQL, MapSqlParameterSource parameters, Consumer<List<OrderModel>> batchConsumer) {
+        ParsedSql parsedSQL = NamedParameterUtils.parseSqlStatement(ordersSQL);
+        String streamSQL = NamedParameterUtils.substituteNamedParameters(parsedSQL, parameters);
+        Object[] arguments = NamedParameterUtils.buildValueArray(parsedSQL, parameters, null);
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            NamedParameterJdbcTemplate streamJdbcTemplate = new NamedParameterJdbcTemplate(new SingleConnectionDataSource(connection, true));
+            List<OrderModel> batch = new ArrayList<>();
+            OrderMapper orderMapper = new OrderMapper(batch);
+            JdbcConnection mysqlConnection = connection.unwrap(JdbcConnection.class);
+            RuntimeProperty<Boolean> cursorFetch = mysqlConnection.getPropertySet().getBooleanProperty(PropertyKey.useCursorFetch);
+            boolean pooledCursorFetch = cursorFetch.getValue();
+            cursorFetch.setValue(true);
+            try {
+                try (PreparedStatement statement = mysqlConnection.serverPrepareStatement(streamSQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    statement.setFetchSize(STREAM_FETCH_SIZE);
+                    new ArgumentPreparedStatementSetter(arguments).setValues(statement);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            orderMapper.processRow(rs);
+                            if (batch.size() == STREAM_FETCH_SIZE) {
+                                flushStreamBatch(batch, batchConsumer, streamJdbcTemplate);
+                            }
+                        }
+                    }
+                }
+            } finally {
+                cursorFetch.setValue(pooledCursorFetch);
+            }
+            flushStreamBatch(batch, batchConsumer, streamJdbcTemplate);
+            return null;
+        });
+    }
+
+    private void flushStreamBatch(List<OrderModel> batch, Consumer<List<OrderModel>> batchConsumer, NamedParameterJdbcTemplate streamJdbcTemplate) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<OrderModel> orders = new ArrayList<>(batch);
+        batch.clear();
+        hydrateProducts(orders, streamJdbcTemplate);
+        batchConsumer.accept(orders);
+    }
+
+    private void hydrateProducts(List<OrderModel> orders) {
+        hydrateProducts(orders, namedParameterJdbcTemplate);
+    }
+
+    private void hydrateProducts(List<OrderModel> orders, NamedParameterJdbcTemplate productsJdbcTemplate) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        String orderProductsSQL = sqlScriptRegistry.getScript(SQLScript.GET_ORDERS_PRODUCTS);
+        log.debug("Orders products query: {}", orderProductsSQL);
+        Map<Integer, List<ProductModel>> orderProducts = new HashMap<>();
+        List<Integer> orderIds = orders.stream().map(OrderModel::getId).distinct().collect(Collectors.toList());
+        for (int from = 0; from < orderIds.size(); from += PRODUCT_HYDRATION_BATCH_SIZE) {
+            List<Integer> batch = orderIds.subList(from, Math.min(from + PRODUCT_HYDRATION_BATCH_SIZE, orderIds.size()));
+            productsJdbcTemplate.query(orderProductsSQL, Map.of("orderIds", ParameterBuckets.bucket(batch)), new OrderProductMapper(orderProducts, jsonCodec));
+        }
+        for (OrderModel order : orders) {
+            order.setProducts(orderProducts.getOrDefault(order.getId(), new ArrayList<>()));
+        }
+    }
 }
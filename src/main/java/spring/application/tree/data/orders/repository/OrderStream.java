@@ -0,0 +1,14 @@
+package spring.application.tree.data.orders.repository;
+
+import spring.application.tree.data.orders.models.OrderModel;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Deferred order query, rows are handed over in hydrated batches while the result set is still being read
+ */
+@FunctionalInterface
+public interface OrderStream {
+    void forEach(Consumer<List<OrderModel>> batchConsumer);
+}
@@ -0,0 +1,79 @@
+package spring.application.tree.data.orders.repository.criteria;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.stereotype.Component;
+import spring.application.tree.data.orders.models.OrderCursor;
+import spring.application.tree.data.utility.loaders.SQLScript;
+import spring.application.tree.data.utility.loaders.SQLScriptRegistry;
+import spring.application.tree.data.utility.models.PairValue;
+import spring.application.tree.data.utility.sql.ParameterBuckets;
+
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class OrderCriteriaQueryBuilder {
+    private final SQLScriptRegistry sqlScriptRegistry;
+
+    public PairValue<String, MapSqlParameterSource> build(List<Integer> productIds,
+                                                          List<BigInteger> orderNumbers,
+                                                          List<Integer> orderStatuses,
+                                                          Date bookingTimeBottom,
+                                                          Date bookingTimeTop,
+                                                          Boolean paid,
+                                                          Double costBottom,
+                                                          Double costTop) {
+        return build(productIds, orderNumbers, orderStatuses, bookingTimeBottom, bookingTimeTop, paid, costBottom, costTop, null, null);
+    }
+
+    public PairValue<String, MapSqlParameterSource> build(List<Integer> productIds,
+                                                          List<BigInteger> orderNumbers,
+                                                          List<Integer> orderStatuses,
+                                                          Date bookingTimeBottom,
+                                                          Date bookingTimeTop,
+                                                          Boolean paid,
+                                                          Double costBottom,
+                                                          Double costTop,
+                                                          OrderCursor cursor,
+                                                          Integer limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        parameters.addValue("paid", paid != null && paid);
+        if (productIds != null && !productIds.isEmpty()) {
+            parameters.addValue("productIds", ParameterBuckets.bucket(productIds));
+        }
+        if (orderNumbers != null && !orderNumbers.isEmpty()) {
+            parameters.addValue("orderNumbers", ParameterBuckets.bucket(orderNumbers.stream().map(BigInteger::toString).collect(Collectors.toList())));
+        }
+        if (orderStatuses != null && !orderStatuses.isEmpty()) {
+            parameters.addValue("orderStatuses", ParameterBuckets.bucket(orderStatuses));
+        }
+        if (bookingTimeBottom != null) {
+            parameters.addValue("bookingTimeBottom", bookingTimeBottom);
+        }
+        if (bookingTimeTop != null) {
+            parameters.addValue("bookingTimeTop", bookingTimeTop);
+        }
+        if (costBottom != null) {
+            parameters.addValue("costBottom", costBottom);
+        }
+        if (costTop != null) {
+            parameters.addValue("costTop", costTop);
+        }
+        if (cursor != null) {
+            parameters.addValue("cursor", true);
+            parameters.addValue("cursorTime", new Timestamp(cursor.getBookingTime().getTime()));
+            parameters.addValue("cursorId", cursor.getId());
+        }
+        if (limit != null) {
+            parameters.addValue("limit", limit);
+        }
+        String sql = sqlScriptRegistry.renderTemplate(SQLScript.GET_ORDERS_BY_CRITERIA, Arrays.asList(parameters.getParameterNames()));
+        return new PairValue<>(sql, parameters);
+    }
+}
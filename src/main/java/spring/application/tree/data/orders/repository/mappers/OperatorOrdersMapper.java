@@ -0,0 +1,25 @@
+package spring.application.tree.data.orders.repository.mappers;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import spring.application.tree.data.orders.models.OrderModel;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups orders by the operator_id column, Operator ID -> Orders
+ */
+public class OperatorOrdersMapper implements RowCallbackHandler {
+    private final Map<Integer, List<OrderModel>> operatorToOrders;
+    public OperatorOrdersMapper(Map<Integer, List<OrderModel>> operatorToOrders) {
+        this.operatorToOrders = operatorToOrders;
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        this.operatorToOrders.computeIfAbsent(rs.getInt("operator_id"), operatorId -> new ArrayList<>()).add(OrderMapper.mapOrder(rs));
+    }
+}
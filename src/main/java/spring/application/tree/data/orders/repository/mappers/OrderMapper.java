@@ -18,16 +18,20 @@ public class OrderMapper implements RowCallbackHandler {
 
     @Override
     public void processRow(ResultSet rs) throws SQLException {
+        this.orders.add(mapOrder(rs));
+    }
+
+    static OrderModel mapOrder(ResultSet rs) throws SQLException {
         OrderModel order = new OrderModel();
         order.setId(rs.getInt("id"));
         order.setCustomerId(rs.getInt("customer_id"));
         order.setOrderNumber(new BigInteger(rs.getString("order_number")));
-        order.setBookingTime(rs.getDate("booking_time"));
+        order.setBookingTime(rs.getTimestamp("booking_time"));
         order.setDeliveryCost(rs.getDouble("delivery_cost"));
         order.setDeliveryAddress(rs.getString("delivery_address"));
         order.setProductCost(rs.getDouble("product_cost"));
         order.setPaid(rs.getBoolean("paid"));
         order.setOrderStatus(OrderStatus.fromOrdinal(rs.getInt("order_status")));
-        this.orders.add(order);
+        return order;
     }
 }
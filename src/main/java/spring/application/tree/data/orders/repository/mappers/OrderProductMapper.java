@@ -0,0 +1,30 @@
+package spring.application.tree.data.orders.repository.mappers;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import spring.application.tree.data.orders.models.ProductModel;
+import spring.application.tree.data.utility.json.JsonCodec;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class OrderProductMapper implements RowCallbackHandler {
+    /**
+     * Order ID -> Ordered products
+     */
+    private final Map<Integer, List<ProductModel>> orderProducts;
+    private final JsonCodec jsonCodec;
+
+    public OrderProductMapper(Map<Integer, List<ProductModel>> orderProducts, JsonCodec jsonCodec) {
+        this.orderProducts = orderProducts;
+        this.jsonCodec = jsonCodec;
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        ProductModel product = ProductMapper.mapOrderLine(rs, jsonCodec);
+        orderProducts.computeIfAbsent(rs.getInt("order_id"), orderId -> new ArrayList<>()).add(product);
+    }
+}
@@ -0,0 +1,38 @@
+package spring.application.tree.data.orders.repository.mappers;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import spring.application.tree.data.orders.models.OrderModel;
+import spring.application.tree.data.utility.json.JsonCodec;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps orders left joined with their lines, rows of one order have to be adjacent
+ */
+public class OrderWithProductsMapper implements RowCallbackHandler {
+    private final List<OrderModel> orders;
+    private final JsonCodec jsonCodec;
+    private OrderModel current;
+
+    public OrderWithProductsMapper(List<OrderModel> orders, JsonCodec jsonCodec) {
+        this.orders = orders;
+        this.jsonCodec = jsonCodec;
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        int orderId = rs.getInt("id");
+        if (current == null || current.getId() != orderId) {
+            current = OrderMapper.mapOrder(rs);
+            current.setProducts(new ArrayList<>());
+            orders.add(current);
+        }
+        rs.getInt("product_id");
+        if (!rs.wasNull()) {
+            current.getProducts().add(ProductMapper.mapJoinedOrderLine(rs, jsonCodec));
+        }
+    }
+}
@@ -1,11 +1,10 @@
 package spring.application.tree.data.orders.repository.mappers;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.RowCallbackHandler;
 import spring.application.tree.data.orders.models.ProductModel;
+import spring.application.tree.data.utility.json.JsonCodec;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -16,27 +15,64 @@ import java.util.Map;
 @Slf4j
 public class ProductMapper implements RowCallbackHandler {
     private final List<ProductModel> products;
+    private final JsonCodec jsonCodec;
+    private final boolean orderLines;
 
-    public ProductMapper(List<ProductModel> products) {
+    public ProductMapper(List<ProductModel> products, JsonCodec jsonCodec) {
+        this(products, jsonCodec, false);
+    }
+
+    private ProductMapper(List<ProductModel> products, JsonCodec jsonCodec, boolean orderLines) {
         this.products = products;
+        this.jsonCodec = jsonCodec;
+        this.orderLines = orderLines;
+    }
+
+    /**
+     * Maps rows joined with products_to_order, carrying the line quantity
+     */
+    public static ProductMapper orderLines(List<ProductModel> products, JsonCodec jsonCodec) {
+        return new ProductMapper(products, jsonCodec, true);
     }
 
     @Override
     public void processRow(ResultSet rs) throws SQLException {
-        ObjectMapper mapper = new ObjectMapper();
+        products.add(orderLines ? mapOrderLine(rs, jsonCodec) : mapProduct(rs, jsonCodec));
+    }
+
+    static ProductModel mapOrderLine(ResultSet rs, JsonCodec jsonCodec) throws SQLException {
+        ProductModel product = mapProduct(rs, rs.getInt("id"), jsonCodec);
+        product.setQuantity(rs.getInt("quantity"));
+        return product;
+    }
+
+    /**
+     * Order line joined to its order row, the product ID is selected as product_id
+     */
+    static ProductModel mapJoinedOrderLine(ResultSet rs, JsonCodec jsonCodec) throws SQLException {
+        ProductModel product = mapProduct(rs, rs.getInt("product_id"), jsonCodec);
+        product.setQuantity(rs.getInt("quantity"));
+        return product;
+    }
+
+    static ProductModel mapProduct(ResultSet rs, JsonCodec jsonCodec) throws SQLException {
+        return mapProduct(rs, rs.getInt("id"), jsonCodec);
+    }
+
+    private static ProductModel mapProduct(ResultSet rs, int productId, JsonCodec jsonCodec) throws SQLException {
         ProductModel product = new ProductModel();
-        product.setId(rs.getInt("id"));
+        product.setId(productId);
         product.setName(rs.getString("name"));
         product.setPrice(rs.getDouble("price"));
         product.setAmount(rs.getInt("amount"));
         product.setAvailable(rs.getBoolean("available"));
         Map<String, String> description = new HashMap<>();
         try {
-            description = mapper.readValue(rs.getString("description"), new TypeReference<>(){});
+            description = jsonCodec.readProductDescription(rs.getString("description"));
         } catch (JsonProcessingException e) {
             log.error(e.getMessage(), e);
         }
         product.setDescription(description);
-        products.add(product);
+        return product;
     }
 }
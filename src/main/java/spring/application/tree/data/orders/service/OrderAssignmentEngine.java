@@ -0,0 +1,108 @@
+package spring.application.tree.data.orders.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import spring.application.tree.data.exceptions.InvalidAttributesException;
+import spring.application.tree.data.orders.models.OperatorAssignmentModel;
+import spring.application.tree.data.orders.repository.OrderRepository;
+import spring.application.tree.data.utility.models.TrioValue;
+import spring.application.tree.web.webscoket.models.DomainEvent;
+import spring.application.tree.web.webscoket.models.Endpoints;
+import spring.application.tree.web.webscoket.models.WebSocketEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Spreads orders over salesmen from a single load snapshot, the least loaded operator with free capacity takes the next order
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@PropertySource("classpath:orders.properties")
+public class OrderAssignmentEngine {
+    private static final Comparator<OperatorAssignmentModel> LEAST_LOADED = Comparator.comparingInt(OperatorAssignmentModel::getOrdersTakenNumber)
+                                                                                     .thenComparingInt(OperatorAssignmentModel::getOperatorId);
+
+    private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    @Value("${orders.operator.capacity}")
+    private int operatorCapacity;
+
+    /**
+     * Moves orders of the operator to the other salesmen, either all of them or only the given ones the operator holds
+     * @return operators which received orders
+     */
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
+    public List<OperatorAssignmentModel> reassignOperatorOrders(int operatorId, List<Integer> orderIds) throws InvalidAttributesException {
+        List<Integer> heldOrderIds = orderRepository.lockOrdersAssignedToOperator(operatorId);
+        Set<Integer> movingOrderIds = new TreeSet<>(heldOrderIds);
+        if (orderIds != null) {
+            movingOrderIds.retainAll(orderIds);
+        }
+        if (movingOrderIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<OperatorAssignmentModel> report = distribute(movingOrderIds, operatorId);
+        log.debug("Orders of operator {} reassigned: {}", operatorId, report);
+        return report;
+    }
+
+    /**
+     * Plans the whole distribution before writing anything, so either every order moves or none does
+     */
+    private List<OperatorAssignmentModel> distribute(Set<Integer> orderIds, int excludedOperatorId) throws InvalidAttributesException {
+        PriorityQueue<OperatorAssignmentModel> operators = new PriorityQueue<>(LEAST_LOADED);
+        int freeSlots = 0;
+        for (TrioValue<Integer, String, Integer> load : orderRepository.getOrderTakenNumberPerOperator()) {
+            if (load.getKey() == excludedOperatorId || load.getData() >= operatorCapacity) {
+                continue;
+            }
+            OperatorAssignmentModel operator = new OperatorAssignmentModel();
+            operator.setOperatorId(load.getKey());
+            operator.setUsername(load.getValue());
+            operator.setOrdersTakenNumber(load.getData());
+            operators.add(operator);
+            freeSlots += operatorCapacity - load.getData();
+        }
+        if (freeSlots < orderIds.size()) {
+            throw new InvalidAttributesException(String.format("Orders can not be reassigned, available slots are not enough, required: %s, available: %s", orderIds.size(), freeSlots),
+                    "", LocalDateTime.now(), HttpStatus.CONFLICT);
+        }
+        Map<Integer, Integer> orderToOperator = new HashMap<>();
+        List<OperatorAssignmentModel> assigned = new ArrayList<>();
+        for (Integer orderId : orderIds) {
+            OperatorAssignmentModel operator = operators.poll();
+            if (operator.getAssignedOrderIds().isEmpty()) {
+                assigned.add(operator);
+            }
+            operator.getAssignedOrderIds().add(orderId);
+            operator.setOrdersTakenNumber(operator.getOrdersTakenNumber() + 1);
+            orderToOperator.put(orderId, operator.getOperatorId());
+            if (operator.getOrdersTakenNumber() < operatorCapacity) {
+                operators.add(operator);
+            }
+        }
+        orderRepository.assignOrdersToOperators(orderToOperator);
+        applicationEventPublisher.publishEvent(new DomainEvent(Endpoints.ORDER, WebSocketEvent.ORDER_ASSIGNED, new TreeMap<>(orderToOperator).entrySet().stream()
+                .map(entry -> Map.of("order_id", entry.getKey(), "operator_id", entry.getValue()))
+                .collect(Collectors.toList())));
+        return assigned.stream().sorted(Comparator.comparingInt(OperatorAssignmentModel::getOperatorId)).collect(Collectors.toList());
+    }
+}
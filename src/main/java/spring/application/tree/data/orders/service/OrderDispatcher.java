@@ -0,0 +1,221 @@
+package spring.application.tree.data.orders.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import spring.application.tree.data.exceptions.InvalidAttributesException;
+import spring.application.tree.data.orders.repository.OrderRepository;
+import spring.application.tree.data.utility.models.TrioValue;
+import spring.application.tree.web.webscoket.models.DomainEvent;
+import spring.application.tree.web.webscoket.models.Endpoints;
+import spring.application.tree.web.webscoket.models.WebSocketEvent;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands committed orders to the least loaded salesman below the operator capacity,
+ * orders left over when every salesman is full are swept up on reseed
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@PropertySource("classpath:orders.properties")
+public class OrderDispatcher {
+    private static final long SHUTDOWN_TIMEOUT = 10_000;
+    private static final int QUEUE_CAPACITY = 10_000;
+
+    private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    /**
+     * Salesmen keyed by orders held, least loaded first
+     */
+    private final PriorityQueue<OperatorLoad> operators = new PriorityQueue<>(Comparator.comparingInt((OperatorLoad load) -> load.orders)
+                                                                                         .thenComparingInt(load -> load.operatorId));
+    @Value("${orders.dispatcher.enabled}")
+    private boolean enabled;
+    @Value("${orders.operator.capacity}")
+    private int operatorCapacity;
+    @Value("${orders.dispatcher.batch.size}")
+    private int batchSize;
+    @Value("${orders.dispatcher.flush.interval}")
+    private long flushInterval;
+    private BlockingQueue<Integer> queue;
+    private Thread dispatcherThread;
+    private volatile boolean running;
+    private boolean seeded;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        dispatcherThread = new Thread(this::run, "order-dispatcher");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (dispatcherThread != null) {
+            dispatcherThread.join(SHUTDOWN_TIMEOUT);
+        }
+    }
+
+    /**
+     * Queues the order once the surrounding transaction commits, an overflowing queue leaves it to the next sweep
+     */
+    public void dispatchAfterCommit(int orderId) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    queue.offer(orderId);
+                }
+            });
+        } else {
+            queue.offer(orderId);
+        }
+    }
+
+    /**
+     * Reloads loads changed around the dispatcher, by admins, operator deletion or another instance, then sweeps unassigned orders
+     */
+    @Scheduled(fixedDelayString = "${orders.dispatcher.reseed.interval}", initialDelayString = "${orders.dispatcher.reseed.interval}")
+    public synchronized void reseed() {
+        if (!enabled) {
+            return;
+        }
+        seed();
+        int freeSlots = operators.stream().mapToInt(load -> Math.max(0, operatorCapacity - load.orders)).sum();
+        if (freeSlots == 0) {
+            return;
+        }
+        try {
+            dispatch(orderRepository.getUnassignedOrderIds(Math.min(freeSlots, batchSize)));
+        } catch (InvalidAttributesException | DataAccessException e) {
+            log.error("Unassigned orders sweep failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void run() {
+        List<Integer> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Integer first = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Orders {} could not be dispatched, they are left to the next sweep: {}", batch, e.getMessage(), e);
+                reset();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private synchronized void dispatch(List<Integer> orderIds) {
+        if (!seeded) {
+            seed();
+        }
+        Map<Integer, Integer> plan = new LinkedHashMap<>();
+        Map<Integer, OperatorLoad> planned = new HashMap<>();
+        for (Integer orderId : orderIds) {
+            OperatorLoad least = operators.peek();
+            if (least == null || least.orders >= operatorCapacity) {
+                break;
+            }
+            operators.poll();
+            least.orders++;
+            operators.add(least);
+            plan.put(orderId, least.operatorId);
+            planned.put(orderId, least);
+        }
+        if (plan.isEmpty()) {
+            return;
+        }
+        Map<Integer, Integer> holders;
+        try {
+            holders = orderRepository.assignAvailableOrdersToOperators(plan);
+        } catch (InvalidAttributesException | DataAccessException e) {
+            log.error("Orders {} could not be dispatched: {}", plan.keySet(), e.getMessage(), e);
+            seeded = false;
+            return;
+        }
+        List<Map<String, Integer>> assignments = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : plan.entrySet()) {
+            if (entry.getValue().equals(holders.get(entry.getKey()))) {
+                assignments.add(Map.of("order_id", entry.getKey(), "operator_id", entry.getValue()));
+                continue;
+            }
+            OperatorLoad load = planned.get(entry.getKey());
+            operators.remove(load);
+            load.orders--;
+            operators.add(load);
+        }
+        announce(assignments);
+    }
+
+    /**
+     * Loads are reloaded before the next batch, the failed one may have left them half applied
+     */
+    private synchronized void reset() {
+        seeded = false;
+    }
+
+    private void seed() {
+        List<TrioValue<Integer, String, Integer>> loads = orderRepository.getOrderTakenNumberPerOperator();
+        operators.clear();
+        for (TrioValue<Integer, String, Integer> load : loads) {
+            operators.add(new OperatorLoad(load.getKey(), load.getData()));
+        }
+        seeded = true;
+    }
+
+    private void announce(List<Map<String, Integer>> assignments) {
+        if (assignments.isEmpty()) {
+            return;
+        }
+        applicationEventPublisher.publishEvent(new DomainEvent(Endpoints.ORDER, WebSocketEvent.ORDER_ASSIGNED, assignments));
+    }
+
+    private static class OperatorLoad {
+        private final int operatorId;
+        private int orders;
+
+        private OperatorLoad(int operatorId, int orders) {
+            this.operatorId = operatorId;
+            this.orders = orders;
+        }
+    }
+}
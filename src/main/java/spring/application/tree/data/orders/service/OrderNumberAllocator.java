@@ -0,0 +1,63 @@
+package spring.application.tree.data.orders.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.stereotype.Service;
+import spring.application.tree.data.orders.repository.OrderRepository;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@PropertySource("classpath:orders.properties")
+public class OrderNumberAllocator {
+    private final OrderRepository orderRepository;
+    private final AtomicReference<OrderNumberRange> range = new AtomicReference<>(OrderNumberRange.EXHAUSTED);
+    private final Object refillLock = new Object();
+    @Value("${orders.number.sequence}")
+    private String sequence;
+    @Value("${orders.number.block.size}")
+    private int blockSize;
+
+    public BigInteger nextOrderNumber() {
+        while (true) {
+            OrderNumberRange current = range.get();
+            long orderNumber = current.next.getAndIncrement();
+            if (orderNumber < current.bound) {
+                return BigInteger.valueOf(orderNumber);
+            }
+            refill(current);
+        }
+    }
+
+    private void refill(OrderNumberRange exhausted) {
+        synchronized (refillLock) {
+            if (range.get() != exhausted) {
+                return;
+            }
+            long bound = orderRepository.reserveOrderNumbers(sequence, blockSize);
+            log.debug("Reserved order numbers [{}, {}) from sequence {}", bound - blockSize, bound, sequence);
+            range.set(new OrderNumberRange(bound - blockSize, bound));
+        }
+    }
+
+    /**
+     * Numbers in [next, bound) are owned by this instance
+     */
+    private static final class OrderNumberRange {
+        private static final OrderNumberRange EXHAUSTED = new OrderNumberRange(0, 0);
+
+        private final AtomicLong next;
+        private final long bound;
+
+        private OrderNumberRange(long start, long bound) {
+            this.next = new AtomicLong(start);
+            this.bound = bound;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package spring.application.tree.data.orders.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -10,17 +11,26 @@ import spring.application.tree.data.exceptions.InvalidAttributesException;
 import spring.application.tree.data.exceptions.NotAllowedException;
 import spring.application.tree.data.orders.attributes.OrderHistoryEvent;
 import spring.application.tree.data.orders.attributes.OrderStatus;
+import spring.application.tree.data.orders.models.OrderCursor;
+import spring.application.tree.data.orders.models.OrderLines;
 import spring.application.tree.data.orders.models.OrderModel;
+import spring.application.tree.data.orders.models.OrderPageModel;
+import spring.application.tree.data.orders.models.ProductCatalogSnapshot;
 import spring.application.tree.data.orders.models.ProductModel;
 import spring.application.tree.data.orders.repository.OrderRepository;
+import spring.application.tree.data.orders.repository.OrderStream;
 import spring.application.tree.data.statistic.service.StatisticService;
 import spring.application.tree.data.users.attributes.Role;
 import spring.application.tree.data.users.models.AbstractUserModel;
 import spring.application.tree.data.users.service.UserService;
 import spring.application.tree.data.utility.models.TrioValue;
+import spring.application.tree.web.webscoket.models.DomainEvent;
+import spring.application.tree.web.webscoket.models.Endpoints;
+import spring.application.tree.web.webscoket.models.WebSocketEvent;
 
 import java.math.BigInteger;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -33,28 +43,29 @@ import java.util.stream.Collectors;
 public class OrderService {
     private final OrderRepository orderRepository;
     private final StatisticService statisticService;
+    private final OrderNumberAllocator orderNumberAllocator;
+    private final ProductCatalog productCatalog;
+    private final OrderDispatcher orderDispatcher;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     public List<OrderModel> getOrdersForCustomer(Integer customerId) throws InvalidAttributesException, NotAllowedException {
-        if (customerId == null) {
-            AbstractUserModel user = UserService.getCurrentlyAuthenticatedUser();
-            if (user == null || user.getRole() != Role.ROLE_CUSTOMER) {
-                throw new NotAllowedException("No authenticated customer detected", "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
-            }
-            customerId = user.getId();
-        }
-        return orderRepository.getOrdersForCustomer(customerId);
+        return orderRepository.getOrdersForCustomer(resolveCustomerId(customerId));
+    }
+
+    public OrderPageModel getOrdersForCustomer(Integer customerId, String cursor, int limit) throws InvalidAttributesException, NotAllowedException {
+        return orderRepository.getOrdersForCustomer(resolveCustomerId(customerId), OrderCursor.decode(cursor), limit);
+    }
+
+    public OrderStream streamOrdersForCustomer(Integer customerId) throws InvalidAttributesException, NotAllowedException {
+        return orderRepository.streamOrdersForCustomer(resolveCustomerId(customerId));
     }
 
     public List<OrderModel> getOrdersAssignedToOperator(int operatorId) throws InvalidAttributesException {
         return orderRepository.getOrdersAssignedToOperator(operatorId);
     }
 
-    public Map<Integer, List<OrderModel>> getOperatorToOrders(List<Integer> operatorIds) throws InvalidAttributesException {
-        Map<Integer, List<OrderModel>> result = new HashMap<>();
-        for (Integer id : operatorIds) {
-            result.put(id, getOrdersAssignedToOperator(id));
-        }
-        return result;
+    public Map<Integer, List<OrderModel>> getOperatorToOrders(List<Integer> operatorIds, Integer limit) throws InvalidAttributesException {
+        return orderRepository.getOrdersAssignedToOperators(operatorIds, limit);
     }
 
     public List<OrderModel> getOrdersByCriteria(List<Integer> productIds,
@@ -68,16 +79,52 @@ public class OrderService {
         return orderRepository.getOrdersByCriteria(productIds, orderNumbers, orderStatuses, bookingTimeBottom, bookingTimeTop, paid, costBottom, costTop);
     }
 
+    public OrderPageModel getOrdersByCriteria(List<Integer> productIds,
+                                              List<BigInteger> orderNumbers,
+                                              List<Integer> orderStatuses,
+                                              Date bookingTimeBottom,
+                                              Date bookingTimeTop,
+                                              Boolean paid,
+                                              Double costBottom,
+                                              Double costTop,
+                                              String cursor,
+                                              int limit) throws InvalidAttributesException {
+        return orderRepository.getOrdersByCriteria(productIds, orderNumbers, orderStatuses, bookingTimeBottom, bookingTimeTop, paid, costBottom, costTop, OrderCursor.decode(cursor), limit);
+    }
+
+    public OrderStream streamOrdersByCriteria(List<Integer> productIds,
+                                              List<BigInteger> orderNumbers,
+                                              List<Integer> orderStatuses,
+                                              Date bookingTimeBottom,
+                                              Date bookingTimeTop,
+                                              Boolean paid,
+                                              Double costBottom,
+                                              Double costTop) throws InvalidAttributesException {
+        return orderRepository.streamOrdersByCriteria(productIds, orderNumbers, orderStatuses, bookingTimeBottom, bookingTimeTop, paid, costBottom, costTop);
+    }
+
     public List<OrderModel> getAvailableOrders() {
         return orderRepository.getAvailableOrders();
     }
 
+    public OrderPageModel getAvailableOrders(String cursor, int limit) throws InvalidAttributesException {
+        return orderRepository.getAvailableOrders(OrderCursor.decode(cursor), limit);
+    }
+
+    public OrderStream streamAvailableOrders() {
+        return orderRepository.streamAvailableOrders();
+    }
+
     public OrderModel getOrderById(int orderId) throws InvalidAttributesException {
         return orderRepository.getOrderById(orderId);
     }
 
     public List<ProductModel> getProducts() {
-        return orderRepository.getProducts();
+        return productCatalog.getProducts();
+    }
+
+    public ProductCatalogSnapshot getProductCatalog() {
+        return productCatalog.getSnapshot();
     }
 
     public List<ProductModel> getOrderProducts(int orderId) throws InvalidAttributesException {
@@ -85,21 +132,27 @@ public class OrderService {
     }
 
     public ProductModel getProduct(int productId) throws InvalidAttributesException {
-        return orderRepository.getProduct(productId);
+        if (productId < 1) {
+            throw new InvalidAttributesException(String.format("Invalid product ID: %s", productId), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+        return productCatalog.getProduct(productId);
     }
 
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
     public void createOrder(OrderModel order) throws InvalidAttributesException {
+        Map<Integer, Integer> lines = OrderLines.ofProducts(order.getProducts());
         if (order.validateData()) {
-            double productCost = order.getProducts().stream().mapToDouble(ProductModel::getPrice).sum();
+            double productCost = order.getProducts().stream().mapToDouble(product -> product.getPrice() * (product.getQuantity() == null ? 1 : product.getQuantity())).sum();
             order.setProductCost(productCost);
         }
-        BigInteger orderNumber = orderRepository.getLatestOrderNumber().add(BigInteger.ONE);
-        order.setOrderNumber(orderNumber);
+        order.setOrderNumber(orderNumberAllocator.nextOrderNumber());
         int orderId = orderRepository.createOrder(order);
         order.setId(orderId);
-        orderRepository.assignProductsToOrder(orderId, order.getProducts().stream().map(ProductModel::getId).collect(Collectors.toList()));
+        rejectUnassignedProducts(orderRepository.assignProductsToOrder(orderId, lines));
         statisticService.addHistoryOrderTreeNode(order, OrderHistoryEvent.ORDER_CREATED);
+        productCatalog.refreshAfterCommit(lines.keySet(), WebSocketEvent.PRODUCT_ORDERED);
+        orderDispatcher.dispatchAfterCommit(orderId);
+        publishOrderEvent(WebSocketEvent.ORDER_CREATED, orderReference(orderId, order));
     }
 
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
@@ -108,49 +161,76 @@ public class OrderService {
             throw new NotAllowedException("Order delivery details can not be updated, it is already being processed", "", LocalDateTime.now(), HttpStatus.CONFLICT);
         }
         orderRepository.updateOrderDeliveryDetails(order);
-        statisticService.addHistoryOrderTreeNode(order, OrderHistoryEvent.ORDER_UPDATED);
+        OrderModel updated = getOrderById(order.getId());
+        statisticService.addHistoryOrderTreeNode(updated, OrderHistoryEvent.ORDER_UPDATED);
+        publishOrderEvent(WebSocketEvent.ORDER_UPDATED, orderReference(order.getId(), updated));
     }
 
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
     public void transferOrderIntoPaidStatus(int orderId) throws InvalidAttributesException {
         orderRepository.transferOrderIntoPaidStatus(orderId);
-        statisticService.addHistoryOrderTreeNode(getOrderById(orderId), OrderHistoryEvent.ORDER_UPDATED);
+        OrderModel order = getOrderById(orderId);
+        statisticService.addHistoryOrderTreeNode(order, OrderHistoryEvent.ORDER_UPDATED);
+        publishOrderEvent(WebSocketEvent.ORDER_UPDATED, orderReference(orderId, order));
     }
 
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
     public void updateOrderStatus(int orderId, Integer newStatus) throws InvalidAttributesException {
         orderRepository.updateOrderStatus(orderId, newStatus);
-        statisticService.addHistoryOrderTreeNode(getOrderById(orderId), OrderHistoryEvent.ORDER_UPDATED);
+        OrderModel order = getOrderById(orderId);
+        statisticService.addHistoryOrderTreeNode(order, OrderHistoryEvent.ORDER_UPDATED);
+        publishOrderEvent(WebSocketEvent.ORDER_UPDATED, orderReference(orderId, order));
     }
 
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
     public void deleteOrder(int orderId) throws InvalidAttributesException {
-        List<ProductModel> orderedProducts = getOrderProducts(orderId);
-        orderRepository.incrementProductAmount(orderedProducts.stream().map(ProductModel::getId).collect(Collectors.toList()), 1);
+        Map<Integer, Integer> lines = orderRepository.lockOrderLines(orderId);
+        if (!lines.isEmpty()) {
+            orderRepository.incrementProductAmount(lines);
+        }
         orderRepository.removeProductsFromOrder(orderId, null);
-        statisticService.addHistoryOrderTreeNode(getOrderById(orderId), OrderHistoryEvent.ORDER_DELETED);
+        OrderModel order = getOrderById(orderId);
+        statisticService.addHistoryOrderTreeNode(order, OrderHistoryEvent.ORDER_DELETED);
         orderRepository.deleteOrder(orderId);
+        productCatalog.refreshAfterCommit(lines.keySet(), WebSocketEvent.PRODUCT_DISORDERED);
+        publishOrderEvent(WebSocketEvent.ORDER_DELETED, orderReference(orderId, order));
     }
 
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
     public void assignProductsToOrder(int orderId, List<Integer> products) throws InvalidAttributesException {
-        orderRepository.assignProductsToOrder(orderId, products);
-        statisticService.addHistoryOrderTreeNode(getOrderById(orderId), OrderHistoryEvent.ORDER_UPDATED);
+        rejectUnassignedProducts(orderRepository.assignProductsToOrder(orderId, OrderLines.ofProductIds(products)));
+        OrderModel order = getOrderById(orderId);
+        statisticService.addHistoryOrderTreeNode(order, OrderHistoryEvent.ORDER_UPDATED);
+        productCatalog.refreshAfterCommit(products, WebSocketEvent.PRODUCT_ORDERED);
+        publishOrderEvent(WebSocketEvent.ORDER_UPDATED, orderReference(orderId, order));
     }
 
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
     public void removeProductsFromOrder(int orderId, List<Integer> productIds) throws InvalidAttributesException {
-        orderRepository.incrementProductAmount(productIds, 1);
-        orderRepository.removeProductsFromOrder(orderId, productIds);
-        statisticService.addHistoryOrderTreeNode(getOrderById(orderId), OrderHistoryEvent.ORDER_UPDATED);
+        Map<Integer, Integer> units = OrderLines.heldOf(OrderLines.ofProductIds(productIds), orderRepository.lockOrderLines(orderId));
+        if (units.isEmpty()) {
+            return;
+        }
+        orderRepository.incrementProductAmount(units);
+        orderRepository.removeProductsFromOrder(orderId, units);
+        OrderModel order = getOrderById(orderId);
+        statisticService.addHistoryOrderTreeNode(order, OrderHistoryEvent.ORDER_UPDATED);
+        productCatalog.refreshAfterCommit(units.keySet(), WebSocketEvent.PRODUCT_DISORDERED);
+        publishOrderEvent(WebSocketEvent.ORDER_UPDATED, orderReference(orderId, order));
     }
 
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
     public void createProduct(ProductModel product) throws InvalidAttributesException {
-        orderRepository.createProduct(product);
+        Integer productId = orderRepository.createProduct(product);
+        if (productId != null) {
+            productCatalog.refreshAfterCommit(Collections.singletonList(productId), WebSocketEvent.PRODUCT_CREATED);
+        }
     }
 
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
     public void updateProduct(ProductModel product) throws InvalidAttributesException {
         orderRepository.updateProduct(product);
+        productCatalog.refreshAfterCommit(Collections.singletonList(product.getId()), WebSocketEvent.PRODUCT_UPDATED);
     }
 
     public void deleteProduct(int productId) throws InvalidAttributesException, NotAllowedException {
@@ -158,6 +238,7 @@ public class OrderService {
             throw new NotAllowedException("Product can not be deleted because it is in usage", "", LocalDateTime.now(), HttpStatus.CONFLICT);
         }
         orderRepository.deleteProduct(productId);
+        productCatalog.refreshAfterCommit(Collections.singletonList(productId), WebSocketEvent.PRODUCT_DELETED);
     }
 
     public Integer countProductAssignation(int productId) throws InvalidAttributesException {
@@ -174,12 +255,59 @@ public class OrderService {
 
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
     public void assignOrderToOperator(List<Integer> orderIds, int operatorId) throws InvalidAttributesException {
+        Map<Integer, Integer> orderToOperator = new HashMap<>();
         for (Integer orderId : orderIds) {
-            orderRepository.assignOrderToOperator(orderId, operatorId);
+            orderToOperator.put(orderId, operatorId);
         }
+        orderRepository.assignOrdersToOperators(orderToOperator);
+        publishOrderEvent(WebSocketEvent.ORDER_ASSIGNED, orderToOperator.keySet().stream()
+                .sorted()
+                .map(orderId -> Map.of("order_id", orderId, "operator_id", operatorId))
+                .collect(Collectors.toList()));
     }
 
     public void removeOrdersFromOperator(List<Integer> orderIds, int operatorId) throws InvalidAttributesException {
         orderRepository.removeOrdersFromOperator(operatorId, orderIds);
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("operator_id", operatorId);
+        payload.put("order_ids", orderIds);
+        publishOrderEvent(WebSocketEvent.ORDER_REMOVED, payload);
+    }
+
+    /**
+     * Delivered on the order topic after the surrounding transaction commits, dropped on rollback
+     */
+    private void publishOrderEvent(WebSocketEvent event, Object payload) {
+        applicationEventPublisher.publishEvent(new DomainEvent(Endpoints.ORDER, event, payload));
+    }
+
+    /**
+     * The order topic is shared by every subscriber, it only carries identifiers and clients load the order through the REST API
+     */
+    private Map<String, Object> orderReference(Integer orderId, OrderModel order) {
+        Map<String, Object> reference = new HashMap<>();
+        reference.put("order_id", orderId);
+        reference.put("order_status", order == null ? null : order.getOrderStatus());
+        return reference;
+    }
+
+    /**
+     * Rolls back the surrounding assignment when any unit is unavailable, so an order is never created half-filled
+     */
+    private void rejectUnassignedProducts(Map<Integer, Integer> unassignedUnits) throws InvalidAttributesException {
+        if (!unassignedUnits.isEmpty()) {
+            throw new InvalidAttributesException(String.format("Products are not available, product ID -> missing units: %s", unassignedUnits), "", LocalDateTime.now(), HttpStatus.CONFLICT);
+        }
+    }
+
+    private int resolveCustomerId(Integer customerId) throws NotAllowedException {
+        if (customerId == null) {
+            AbstractUserModel user = UserService.getCurrentlyAuthenticatedUser();
+            if (user == null || user.getRole() != Role.ROLE_CUSTOMER) {
+                throw new NotAllowedException("No authenticated customer detected", "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+            }
+            customerId = user.getId();
+        }
+        return customerId;
     }
 }
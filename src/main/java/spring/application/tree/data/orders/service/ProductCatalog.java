@@ -0,0 +1,152 @@
+package spring.application.tree.data.orders.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import spring.application.tree.data.exceptions.InvalidAttributesException;
+import spring.application.tree.data.orders.models.ProductCatalogSnapshot;
+import spring.application.tree.data.orders.models.ProductModel;
+import spring.application.tree.data.orders.repository.OrderRepository;
+import spring.application.tree.data.utility.json.JsonCodec;
+import spring.application.tree.web.webscoket.models.DomainEvent;
+import spring.application.tree.web.webscoket.models.Endpoints;
+import spring.application.tree.web.webscoket.models.WebSocketEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through product catalog, loaded on first read and patched with the rows a committed write touched.
+ * Every change is announced on the product topic together with the new entity tag.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@PropertySource("classpath:orders.properties")
+public class ProductCatalog {
+    private final OrderRepository orderRepository;
+    private final JsonCodec jsonCodec;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private volatile ProductCatalogSnapshot snapshot;
+
+    public ProductCatalogSnapshot getSnapshot() {
+        ProductCatalogSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = build(index(orderRepository.getProducts()));
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    public List<ProductModel> getProducts() {
+        return getSnapshot().getProducts().values().stream().map(ProductModel::copy).collect(Collectors.toList());
+    }
+
+    public ProductModel getProduct(int productId) {
+        ProductModel product = getSnapshot().getProducts().get(productId);
+        return product == null ? null : product.copy();
+    }
+
+    /**
+     * Re-reads the given products once the surrounding transaction commits, immediately when there is none
+     */
+    public void refreshAfterCommit(Collection<Integer> productIds, WebSocketEvent event) {
+        if (productIds == null || productIds.isEmpty()) {
+            return;
+        }
+        Set<Integer> changedProductIds = new TreeSet<>(productIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(changedProductIds, event);
+                }
+            });
+        } else {
+            refresh(changedProductIds, event);
+        }
+    }
+
+    /**
+     * Catches changes made around the application, by another instance or straight in the database
+     */
+    @Scheduled(fixedDelayString = "${products.catalog.refresh.interval}", initialDelayString = "${products.catalog.refresh.interval}")
+    public synchronized void reload() {
+        ProductCatalogSnapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        try {
+            ProductCatalogSnapshot reloaded = build(index(orderRepository.getProducts()));
+            if (!reloaded.getEtag().equals(current.getEtag())) {
+                snapshot = reloaded;
+                Set<Integer> productIds = new TreeSet<>(current.getProducts().keySet());
+                productIds.addAll(reloaded.getProducts().keySet());
+                announce(productIds, WebSocketEvent.PRODUCT_UPDATED, reloaded);
+            }
+        } catch (RuntimeException e) {
+            log.error("Product catalog reload failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private synchronized void refresh(Set<Integer> productIds, WebSocketEvent event) {
+        ProductCatalogSnapshot current = snapshot;
+        if (current == null) {
+            announce(productIds, event, getSnapshot());
+            return;
+        }
+        try {
+            Map<Integer, ProductModel> products = new TreeMap<>(current.getProducts());
+            productIds.forEach(products::remove);
+            products.putAll(index(orderRepository.getProducts(productIds)));
+            ProductCatalogSnapshot refreshed = build(products);
+            snapshot = refreshed;
+            announce(productIds, event, refreshed);
+        } catch (InvalidAttributesException | RuntimeException e) {
+            log.error("Product catalog refresh failed for {}, dropping the catalog: {}", productIds, e.getMessage(), e);
+            snapshot = null;
+        }
+    }
+
+    private Map<Integer, ProductModel> index(List<ProductModel> products) {
+        Map<Integer, ProductModel> indexed = new TreeMap<>();
+        for (ProductModel product : products) {
+            indexed.put(product.getId(), product.copy());
+        }
+        return indexed;
+    }
+
+    private ProductCatalogSnapshot build(Map<Integer, ProductModel> products) {
+        try {
+            byte[] body = jsonCodec.writeProducts(new ArrayList<>(products.values()));
+            return new ProductCatalogSnapshot(products, body, String.format("\"%s\"", DigestUtils.md5DigestAsHex(body)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void announce(Set<Integer> productIds, WebSocketEvent event, ProductCatalogSnapshot catalog) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("products", productIds);
+        payload.put("etag", catalog.getEtag());
+        applicationEventPublisher.publishEvent(new DomainEvent(Endpoints.PRODUCT, event, payload));
+    }
+}
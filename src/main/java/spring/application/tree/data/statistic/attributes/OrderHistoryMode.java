@@ -0,0 +1,12 @@
+package spring.application.tree.data.statistic.attributes;
+
+public enum OrderHistoryMode {
+    /**
+     * Records are queued in memory after commit and written by the background writer
+     */
+    QUEUE,
+    /**
+     * Records are inserted into order_history_outbox inside the caller transaction and relayed by the background writer
+     */
+    OUTBOX
+}
@@ -16,5 +16,7 @@ public class OrderHistoryElement {
     private OrderModel state;
     private OrderHistoryEvent event;
     private Integer previousRecord;
+    /** Position in the order history, 1 for the first record */
+    private Long version;
     private Date date;
 }
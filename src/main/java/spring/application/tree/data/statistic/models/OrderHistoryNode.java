@@ -0,0 +1,22 @@
+package spring.application.tree.data.statistic.models;
+
+import lombok.Data;
+import spring.application.tree.data.orders.attributes.OrderHistoryEvent;
+
+import java.math.BigInteger;
+import java.util.Date;
+
+/**
+ * Stored order_history row, state is a full order snapshot or a merge patch against the previous version
+ */
+@Data
+public class OrderHistoryNode {
+    private Integer id;
+    private BigInteger orderNumber;
+    private String state;
+    private boolean snapshot;
+    private OrderHistoryEvent event;
+    private Integer previousRecord;
+    private Long version;
+    private Date date;
+}
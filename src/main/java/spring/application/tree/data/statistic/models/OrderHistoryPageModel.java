@@ -0,0 +1,16 @@
+package spring.application.tree.data.statistic.models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class OrderHistoryPageModel {
+    private List<OrderHistoryElement> records;
+    /** to_version of the next, older page, null on the last page */
+    @JsonProperty("next_version")
+    private Long nextVersion;
+}
@@ -0,0 +1,50 @@
+package spring.application.tree.data.statistic.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import spring.application.tree.data.orders.attributes.OrderHistoryEvent;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class OrderHistoryRecord {
+    private String orderNumber;
+    private String state;
+    private OrderHistoryEvent event;
+    private Timestamp date;
+    /**
+     * Whether state is a full order state or a merge patch against the previous version
+     */
+    private boolean snapshot;
+
+    public OrderHistoryRecord(String orderNumber, String state, OrderHistoryEvent event, Timestamp date) {
+        this(orderNumber, state, event, date, true);
+    }
+
+    public OrderHistoryRecord withState(String state, boolean snapshot) {
+        return new OrderHistoryRecord(orderNumber, state, event, date, snapshot);
+    }
+
+    /**
+     * Collapses consecutive ORDER_UPDATED records of the same order into the latest one, keeps everything else in order
+     */
+    public static List<OrderHistoryRecord> coalesce(List<OrderHistoryRecord> records) {
+        List<OrderHistoryRecord> result = new ArrayList<>(records.size());
+        Map<String, Integer> latestRecordIndex = new HashMap<>();
+        for (OrderHistoryRecord record : records) {
+            Integer index = latestRecordIndex.get(record.getOrderNumber());
+            if (index != null && record.getEvent() == OrderHistoryEvent.ORDER_UPDATED && result.get(index).getEvent() == OrderHistoryEvent.ORDER_UPDATED) {
+                result.set(index, record);
+                continue;
+            }
+            latestRecordIndex.put(record.getOrderNumber(), result.size());
+            result.add(record);
+        }
+        return result;
+    }
+}
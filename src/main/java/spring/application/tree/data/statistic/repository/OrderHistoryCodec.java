@@ -0,0 +1,214 @@
+package spring.application.tree.data.statistic.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import spring.application.tree.data.statistic.models.OrderHistoryElement;
+import spring.application.tree.data.statistic.models.OrderHistoryNode;
+import spring.application.tree.data.statistic.models.OrderHistoryRecord;
+import spring.application.tree.data.utility.json.JsonCodec;
+import spring.application.tree.data.utility.json.JsonMergePatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores a full order state every snapshot interval versions and merge patches against the previous version in between
+ */
+@Component
+@Slf4j
+@PropertySource("classpath:orders.properties")
+public class OrderHistoryCodec {
+    private static final int HEAD_CACHE_SIZE = 10_000;
+
+    private final JsonCodec jsonCodec;
+    private final int snapshotInterval;
+    /**
+     * Order number -> Latest state appended by this instance, only trusted while its version is still the head version
+     */
+    private final Cache<String, Head> heads;
+
+    public OrderHistoryCodec(JsonCodec jsonCodec, @Value("${orders.history.snapshot.interval}") int snapshotInterval) {
+        this.jsonCodec = jsonCodec;
+        this.snapshotInterval = Math.max(1, snapshotInterval);
+        this.heads = Caffeine.newBuilder().maximumSize(HEAD_CACHE_SIZE).build();
+    }
+
+    /**
+     * Encodes records appended in the given order, falls back to a snapshot whenever the cached head is missing or stale
+     * @param headVersions Order number -> Version currently stored in order_history_head, locked by the caller
+     */
+    public List<OrderHistoryRecord> encode(List<OrderHistoryRecord> records, Map<String, Long> headVersions) {
+        Map<String, Long> versions = new HashMap<>(headVersions);
+        Map<String, Head> appended = new HashMap<>();
+        List<OrderHistoryRecord> encoded = new ArrayList<>(records.size());
+        for (OrderHistoryRecord record : records) {
+            long version = versions.getOrDefault(record.getOrderNumber(), 0L) + 1;
+            versions.put(record.getOrderNumber(), version);
+            Head previous = appended.containsKey(record.getOrderNumber()) ? appended.get(record.getOrderNumber()) : heads.getIfPresent(record.getOrderNumber());
+            JsonNode state;
+            try {
+                state = JsonMergePatch.withoutNulls(jsonCodec.readTree(record.getState()));
+            } catch (JsonProcessingException e) {
+                log.debug(e.getMessage(), e);
+                appended.put(record.getOrderNumber(), null);
+                encoded.add(record.withState(record.getState(), true));
+                continue;
+            }
+            boolean snapshot = previous == null || previous.version != version - 1 || previous.state == null || previous.state.isNull()
+                    || state == null || state.isNull() || previous.deltas + 1 >= snapshotInterval;
+            JsonNode patch = snapshot ? null : JsonMergePatch.diff(previous.state, state);
+            if (patch == null || !state.equals(JsonMergePatch.apply(previous.state, patch))) {
+                encoded.add(record.withState(record.getState(), true));
+                appended.put(record.getOrderNumber(), new Head(version, state, 0));
+                continue;
+            }
+            try {
+                encoded.add(record.withState(jsonCodec.writeTree(patch), false));
+                appended.put(record.getOrderNumber(), new Head(version, state, previous.deltas + 1));
+            } catch (JsonProcessingException e) {
+                log.debug(e.getMessage(), e);
+                encoded.add(record.withState(record.getState(), true));
+                appended.put(record.getOrderNumber(), new Head(version, state, 0));
+            }
+        }
+        publishHeads(appended);
+        return encoded;
+    }
+
+    /**
+     * @param chain consecutive versions of one order in ascending order, the first one has to be a snapshot
+     */
+    public List<OrderHistoryElement> decode(List<OrderHistoryNode> chain) {
+        List<OrderHistoryElement> elements = new ArrayList<>(chain.size());
+        List<JsonNode> states = decodeStates(chain);
+        for (int i = 0; i < chain.size(); i++) {
+            OrderHistoryNode node = chain.get(i);
+            OrderHistoryElement element = new OrderHistoryElement();
+            element.setId(node.getId());
+            element.setOrderNumber(node.getOrderNumber());
+            try {
+                element.setState(jsonCodec.readOrderState(states.get(i)));
+            } catch (JsonProcessingException e) {
+                element.setState(null);
+            }
+            element.setEvent(node.getEvent());
+            element.setPreviousRecord(node.getPreviousRecord());
+            element.setVersion(node.getVersion());
+            element.setDate(node.getDate());
+            elements.add(element);
+        }
+        return elements;
+    }
+
+    /**
+     * Re-encodes a whole chain with snapshots only at every snapshot interval
+     * @param chain every version of one order in ascending order
+     * @return nodes whose stored state or snapshot flag has to change
+     */
+    public List<OrderHistoryNode> compact(List<OrderHistoryNode> chain) throws JsonProcessingException {
+        List<JsonNode> states = decodeStates(chain);
+        for (int i = 0; i < chain.size(); i++) {
+            if (states.get(i) == null && chain.get(i).getState() != null) {
+                log.error("History of order {} can not be rebuilt at record {}, it is left uncompacted", chain.get(i).getOrderNumber(), chain.get(i).getId());
+                return new ArrayList<>();
+            }
+        }
+        List<OrderHistoryNode> changed = new ArrayList<>();
+        for (int i = 0; i < chain.size(); i++) {
+            OrderHistoryNode node = chain.get(i);
+            JsonNode state = JsonMergePatch.withoutNulls(states.get(i));
+            JsonNode previous = i == 0 ? null : JsonMergePatch.withoutNulls(states.get(i - 1));
+            boolean snapshot = previous == null || previous.isNull() || state == null || state.isNull() || (node.getVersion() - 1) % snapshotInterval == 0;
+            JsonNode encoded = snapshot ? state : JsonMergePatch.diff(previous, state);
+            if (!snapshot && !state.equals(JsonMergePatch.apply(previous, encoded))) {
+                snapshot = true;
+                encoded = state;
+            }
+            if (snapshot && node.isSnapshot()) {
+                continue;
+            }
+            if (!snapshot && !node.isSnapshot() && encoded.equals(jsonCodec.readTree(node.getState()))) {
+                continue;
+            }
+            OrderHistoryNode compacted = new OrderHistoryNode();
+            compacted.setId(node.getId());
+            compacted.setState(jsonCodec.writeTree(encoded));
+            compacted.setSnapshot(snapshot);
+            changed.add(compacted);
+        }
+        return changed;
+    }
+
+    /**
+     * Cached heads are replaced only once the appended records are committed, a rolled back append must not become a delta base
+     */
+    private void publishHeads(Map<String, Head> appended) {
+        appended.keySet().forEach(heads::invalidate);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            appended.forEach((orderNumber, head) -> {
+                if (head != null) {
+                    heads.put(orderNumber, head);
+                }
+            });
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                appended.forEach((orderNumber, head) -> {
+                    if (head != null) {
+                        heads.put(orderNumber, head);
+                    }
+                });
+            }
+        });
+    }
+
+    private List<JsonNode> decodeStates(List<OrderHistoryNode> chain) {
+        List<JsonNode> states = new ArrayList<>(chain.size());
+        JsonNode current = null;
+        for (OrderHistoryNode node : chain) {
+            try {
+                JsonNode stored = jsonCodec.readTree(node.getState());
+                if (node.isSnapshot()) {
+                    current = stored;
+                } else if (current == null || current.isNull()) {
+                    log.error("History record {} of order {} is a delta without a base state", node.getId(), node.getOrderNumber());
+                    current = null;
+                } else {
+                    current = JsonMergePatch.apply(current, stored);
+                }
+            } catch (JsonProcessingException e) {
+                log.debug(e.getMessage(), e);
+                current = null;
+            }
+            states.add(current);
+        }
+        return states;
+    }
+
+    private static class Head {
+        private final long version;
+        private final JsonNode state;
+        /**
+         * Deltas written since the latest snapshot
+         */
+        private final int deltas;
+
+        private Head(long version, JsonNode state, int deltas) {
+            this.version = version;
+            this.state = state;
+            this.deltas = deltas;
+        }
+    }
+}
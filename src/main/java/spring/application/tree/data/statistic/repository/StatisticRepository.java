@@ -1,58 +1,283 @@
 package spring.application.tree.data.statistic.repository;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import spring.application.tree.data.exceptions.InvalidAttributesException;
 import spring.application.tree.data.orders.attributes.OrderHistoryEvent;
-import spring.application.tree.data.orders.models.OrderModel;
 import spring.application.tree.data.statistic.models.OrderHistoryElement;
+import spring.application.tree.data.statistic.models.OrderHistoryNode;
+import spring.application.tree.data.statistic.models.OrderHistoryPageModel;
+import spring.application.tree.data.statistic.models.OrderHistoryRecord;
 import spring.application.tree.data.statistic.repository.mappers.OrderHistoryNodeMapper;
-import spring.application.tree.data.utility.loaders.PropertyResourceLoader;
+import spring.application.tree.data.utility.json.JsonCodec;
+import spring.application.tree.data.utility.loaders.SQLScript;
+import spring.application.tree.data.utility.loaders.SQLScriptRegistry;
 
 import java.math.BigInteger;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 @Repository
 @RequiredArgsConstructor
 @Slf4j
 public class StatisticRepository {
+    private static final int MAX_PAGE_SIZE = 1000;
+    /**
+     * Named lock held by the single instance relaying the history outbox, released before commit, the next holder waits on
+     * the row locks of the transferred records until they are committed
+     */
+    private static final String HISTORY_OUTBOX_RELAY_LOCK = "order_history_outbox_relay";
+    /**
+     * Returned by transferHistoryOutbox when another instance holds the relay lock, parked records may still be waiting
+     */
+    public static final int HISTORY_OUTBOX_LOCKED = -1;
     private final JdbcTemplate jdbcTemplate;
+    private final SQLScriptRegistry sqlScriptRegistry;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final JsonCodec jsonCodec;
+    private final OrderHistoryCodec orderHistoryCodec;
 
     public List<OrderHistoryElement> getHistoryOrderTreeForOrder(BigInteger orderNumber) throws InvalidAttributesException {
         if (orderNumber == null) {
             throw new InvalidAttributesException(String.format("Invalid order number: %s", orderNumber), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String getHistoryTreeForOrderSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/statistic/getHistoryOrderTreeForOrder.sql");
+        String getHistoryTreeForOrderSQL = sqlScriptRegistry.getScript(SQLScript.GET_HISTORY_TREE_FOR_ORDER);
         log.debug("Get history tree: {}", getHistoryTreeForOrderSQL);
-        List<OrderHistoryElement> tree = new ArrayList<>();
+        List<OrderHistoryNode> tree = new ArrayList<>();
         try {
             jdbcTemplate.query(getHistoryTreeForOrderSQL, new OrderHistoryNodeMapper(tree), orderNumber.toString());
+            return decodeNewestFirst(tree);
         } catch (DataAccessException e) {
             log.debug(e.getMessage(), e);
             return new ArrayList<>();
         }
-        return tree;
     }
 
-    public void addHistoryOrderTreeNode(OrderModel order, OrderHistoryEvent event) throws InvalidAttributesException {
-        if (event == null) {
-            throw new InvalidAttributesException(String.format("Invalid history event: %s", event), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+    /**
+     * Newest first slice of the order history within [fromVersion, toVersion], open ends when null
+     */
+    public OrderHistoryPageModel getHistoryPageForOrder(BigInteger orderNumber, Long fromVersion, Long toVersion, int limit) throws InvalidAttributesException {
+        if (orderNumber == null || (fromVersion != null && fromVersion < 1) || (toVersion != null && toVersion < 1)
+                || (fromVersion != null && toVersion != null && fromVersion > toVersion)) {
+            throw new InvalidAttributesException(String.format("Invalid order number: %s, version range: %s-%s", orderNumber, fromVersion, toVersion), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        ObjectMapper mapper = new ObjectMapper();
-        String addHistoryOrderTreeNodeSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/statistic/addHistoryOrderTreeNode.sql");
-        log.debug("Add history tree node query: {}", addHistoryOrderTreeNodeSQL);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidAttributesException(String.format("Invalid page limit: %s, allowed range is 1-%s", limit, MAX_PAGE_SIZE), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource("orderNumber", orderNumber.toString()).addValue("limit", limit + 1);
+        if (fromVersion != null) {
+            parameters.addValue("fromVersion", fromVersion);
+        }
+        if (toVersion != null) {
+            parameters.addValue("toVersion", toVersion);
+        }
+        String getHistoryPageForOrderSQL = sqlScriptRegistry.renderTemplate(SQLScript.GET_HISTORY_PAGE_FOR_ORDER, Arrays.asList(parameters.getParameterNames()));
+        log.debug("Get history page: {}", getHistoryPageForOrderSQL);
+        List<OrderHistoryNode> page = new ArrayList<>();
+        Long nextVersion = null;
         try {
-            jdbcTemplate.update(addHistoryOrderTreeNodeSQL, order.getOrderNumber(), mapper.writeValueAsString(order), event.getOrdinal(), order.getOrderNumber());
-        } catch (DataAccessException | JsonProcessingException e) {
+            namedParameterJdbcTemplate.query(getHistoryPageForOrderSQL, parameters, new OrderHistoryNodeMapper(page));
+            if (page.size() > limit) {
+                page = new ArrayList<>(page.subList(0, limit));
+                nextVersion = page.get(limit - 1).getVersion() - 1;
+            }
+            return new OrderHistoryPageModel(decodeNewestFirst(page), nextVersion);
+        } catch (DataAccessException e) {
             log.debug(e.getMessage(), e);
+            return new OrderHistoryPageModel(new ArrayList<>(), null);
+        }
+    }
+
+    /**
+     * Latest record of the order history, found through order_history_head without scanning the chain
+     */
+    public OrderHistoryElement getLatestHistoryNode(BigInteger orderNumber) throws InvalidAttributesException {
+        if (orderNumber == null) {
+            throw new InvalidAttributesException(String.format("Invalid order number: %s", orderNumber), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+        String getLatestHistoryNodeSQL = sqlScriptRegistry.getScript(SQLScript.GET_LATEST_HISTORY_NODE);
+        log.debug("Get latest history node: {}", getLatestHistoryNodeSQL);
+        List<OrderHistoryNode> nodes = new ArrayList<>();
+        try {
+            jdbcTemplate.query(getLatestHistoryNodeSQL, new OrderHistoryNodeMapper(nodes), orderNumber.toString());
+            List<OrderHistoryElement> latest = decodeNewestFirst(nodes);
+            return latest.isEmpty() ? null : latest.get(0);
+        } catch (DataAccessException e) {
+            log.debug(e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Locks the heads of the affected orders so the states can be delta encoded against them,
+     * previous_record, version and order_history_head are maintained by the order_history insert triggers
+     */
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
+    public void addHistoryOrderTreeNodes(List<OrderHistoryRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        String lockHistoryHeadsSQL = sqlScriptRegistry.getScript(SQLScript.LOCK_HISTORY_HEADS);
+        Map<String, Long> headVersions = new HashMap<>();
+        Set<String> orderNumbers = records.stream().map(OrderHistoryRecord::getOrderNumber).collect(Collectors.toCollection(TreeSet::new));
+        namedParameterJdbcTemplate.query(lockHistoryHeadsSQL, new MapSqlParameterSource("orderNumbers", orderNumbers), (rs) -> {
+            headVersions.put(rs.getString("order_number"), rs.getLong("version"));
+        });
+        List<OrderHistoryRecord> encoded = orderHistoryCodec.encode(records, headVersions);
+        String addHistoryOrderTreeNodeSQL = sqlScriptRegistry.getScript(SQLScript.ADD_HISTORY_ORDER_TREE_NODE);
+        log.debug("Add history tree nodes query: {}, batch: {}", addHistoryOrderTreeNodeSQL, encoded.size());
+        jdbcTemplate.batchUpdate(addHistoryOrderTreeNodeSQL, encoded, encoded.size(), (ps, record) -> {
+            ps.setString(1, record.getOrderNumber());
+            ps.setString(2, record.getState());
+            ps.setBoolean(3, record.isSnapshot());
+            ps.setInt(4, record.getEvent().getOrdinal());
+            ps.setTimestamp(5, record.getDate());
+        });
+    }
+
+    /**
+     * Order numbers after the given one whose history was appended to since its last compaction, and not since before
+     */
+    public List<String> getUncompactedHistoryOrders(String afterOrderNumber, Timestamp before, int limit) {
+        String getUncompactedHistoryOrdersSQL = sqlScriptRegistry.getScript(SQLScript.GET_UNCOMPACTED_HISTORY_ORDERS);
+        log.debug("Get uncompacted history orders query: {}", getUncompactedHistoryOrdersSQL);
+        return jdbcTemplate.queryForList(getUncompactedHistoryOrdersSQL, String.class, afterOrderNumber, before, limit);
+    }
+
+    /**
+     * Rewrites the history of the order as snapshots every snapshot interval and deltas in between, the head is marked as compacted
+     * even when nothing changed or the chain can not be rebuilt, so the order is not picked up again until it is appended to
+     * @return number of rewritten records
+     */
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
+    public int compactHistoryForOrder(String orderNumber) throws JsonProcessingException {
+        String lockHistoryHeadsSQL = sqlScriptRegistry.getScript(SQLScript.LOCK_HISTORY_HEADS);
+        List<Long> headVersions = new ArrayList<>();
+        namedParameterJdbcTemplate.query(lockHistoryHeadsSQL, new MapSqlParameterSource("orderNumbers", List.of(orderNumber)), (rs) -> {
+            headVersions.add(rs.getLong("version"));
+        });
+        if (headVersions.isEmpty()) {
+            return 0;
+        }
+        String getHistoryTreeForOrderSQL = sqlScriptRegistry.getScript(SQLScript.GET_HISTORY_TREE_FOR_ORDER);
+        List<OrderHistoryNode> chain = new ArrayList<>();
+        jdbcTemplate.query(getHistoryTreeForOrderSQL, new OrderHistoryNodeMapper(chain), orderNumber);
+        Collections.reverse(chain);
+        List<OrderHistoryNode> compacted = orderHistoryCodec.compact(chain);
+        String markHistoryCompactedSQL = sqlScriptRegistry.getScript(SQLScript.MARK_HISTORY_COMPACTED);
+        jdbcTemplate.update(markHistoryCompactedSQL, headVersions.get(0), orderNumber);
+        if (compacted.isEmpty()) {
+            return 0;
+        }
+        String updateHistoryNodeStateSQL = sqlScriptRegistry.getScript(SQLScript.UPDATE_HISTORY_NODE_STATE);
+        log.debug("Update history node state query: {}, batch: {}", updateHistoryNodeStateSQL, compacted.size());
+        jdbcTemplate.batchUpdate(updateHistoryNodeStateSQL, compacted, compacted.size(), (ps, node) -> {
+            ps.setString(1, node.getState());
+            ps.setBoolean(2, node.isSnapshot());
+            ps.setInt(3, node.getId());
+        });
+        return compacted.size();
+    }
+
+    public void addHistoryOutboxRecord(OrderHistoryRecord record) {
+        String addHistoryOutboxRecordSQL = sqlScriptRegistry.getScript(SQLScript.ADD_HISTORY_OUTBOX_RECORD);
+        log.debug("Add history outbox record query: {}", addHistoryOutboxRecordSQL);
+        jdbcTemplate.update(addHistoryOutboxRecordSQL, record.getOrderNumber(), record.getState(), record.getEvent().getOrdinal(), record.getDate());
+    }
+
+    /**
+     * Parks records that could not be appended to order_history, the relay moves them over in outbox order
+     */
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
+    public void addHistoryOutboxRecords(List<OrderHistoryRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        String addHistoryOutboxRecordSQL = sqlScriptRegistry.getScript(SQLScript.ADD_HISTORY_OUTBOX_RECORD);
+        log.debug("Add history outbox records query: {}, batch: {}", addHistoryOutboxRecordSQL, records.size());
+        jdbcTemplate.batchUpdate(addHistoryOutboxRecordSQL, records, records.size(), (ps, record) -> {
+            ps.setString(1, record.getOrderNumber());
+            ps.setString(2, record.getState());
+            ps.setInt(3, record.getEvent().getOrdinal());
+            ps.setTimestamp(4, record.getDate());
+        });
+    }
+
+    /**
+     * Moves up to limit outbox records into order_history in outbox order. Only the instance holding the relay lock transfers,
+     * so records of one order are never appended out of order by relays running side by side
+     * @return number of transferred records, HISTORY_OUTBOX_LOCKED when the relay lock is held elsewhere
+     */
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
+    public int transferHistoryOutbox(int limit) {
+        String acquireHistoryOutboxRelayLockSQL = sqlScriptRegistry.getScript(SQLScript.ACQUIRE_HISTORY_OUTBOX_RELAY_LOCK);
+        Integer acquired = jdbcTemplate.queryForObject(acquireHistoryOutboxRelayLockSQL, Integer.class, HISTORY_OUTBOX_RELAY_LOCK);
+        if (acquired == null || acquired != 1) {
+            return HISTORY_OUTBOX_LOCKED;
+        }
+        try {
+            String getHistoryOutboxRecordsSQL = sqlScriptRegistry.getScript(SQLScript.GET_HISTORY_OUTBOX_RECORDS);
+            List<Long> ids = new ArrayList<>();
+            List<OrderHistoryRecord> records = new ArrayList<>();
+            jdbcTemplate.query(getHistoryOutboxRecordsSQL, (rs) -> {
+                ids.add(rs.getLong("id"));
+                records.add(new OrderHistoryRecord(rs.getString("order_number"),
+                                                   rs.getString("state"),
+                                                   OrderHistoryEvent.fromOrdinal(rs.getInt("event")),
+                                                   rs.getTimestamp("date")));
+            }, limit);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            addHistoryOrderTreeNodes(OrderHistoryRecord.coalesce(records));
+            String deleteHistoryOutboxRecordsSQL = sqlScriptRegistry.getScript(SQLScript.DELETE_HISTORY_OUTBOX_RECORDS);
+            namedParameterJdbcTemplate.update(deleteHistoryOutboxRecordsSQL, new MapSqlParameterSource("ids", ids));
+            return ids.size();
+        } finally {
+            String releaseHistoryOutboxRelayLockSQL = sqlScriptRegistry.getScript(SQLScript.RELEASE_HISTORY_OUTBOX_RELAY_LOCK);
+            jdbcTemplate.queryForObject(releaseHistoryOutboxRelayLockSQL, Integer.class, HISTORY_OUTBOX_RELAY_LOCK);
+        }
+    }
+
+    /**
+     * Rebuilds the states of consecutive newest first records, reading back to the closest snapshot when the oldest one is a delta
+     */
+    private List<OrderHistoryElement> decodeNewestFirst(List<OrderHistoryNode> nodes) {
+        if (nodes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<OrderHistoryNode> chain = new ArrayList<>(nodes);
+        Collections.reverse(chain);
+        OrderHistoryNode oldest = chain.get(0);
+        List<OrderHistoryNode> base = new ArrayList<>();
+        if (!oldest.isSnapshot()) {
+            String getHistoryBaseForOrderSQL = sqlScriptRegistry.getScript(SQLScript.GET_HISTORY_BASE_FOR_ORDER);
+            log.debug("Get history base query: {}", getHistoryBaseForOrderSQL);
+            String orderNumber = oldest.getOrderNumber().toString();
+            jdbcTemplate.query(getHistoryBaseForOrderSQL, new OrderHistoryNodeMapper(base), orderNumber, oldest.getVersion(), orderNumber, oldest.getVersion());
         }
+        base.addAll(chain);
+        List<OrderHistoryElement> elements = orderHistoryCodec.decode(base);
+        List<OrderHistoryElement> result = new ArrayList<>(elements.subList(elements.size() - chain.size(), elements.size()));
+        Collections.reverse(result);
+        return result;
     }
 }
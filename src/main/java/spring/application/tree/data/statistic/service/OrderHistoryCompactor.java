@@ -0,0 +1,58 @@
+package spring.application.tree.data.statistic.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import spring.application.tree.data.statistic.repository.StatisticRepository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Re-encodes settled order histories, legacy full snapshots and snapshots forced by cold or stale appends become deltas.
+ * Candidates are paged through in order number order, so orders failing to compact do not hold back the ones after them
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@PropertySource("classpath:orders.properties")
+public class OrderHistoryCompactor {
+    private final StatisticRepository statisticRepository;
+    @Value("${orders.history.compaction.age}")
+    private long compactionAge;
+    @Value("${orders.history.compaction.batch.size}")
+    private int batchSize;
+    /**
+     * Last order number of the previous batch, reset once the candidates are exhausted
+     */
+    private String lastOrderNumber = "";
+
+    @Scheduled(fixedDelayString = "${orders.history.compaction.interval}", initialDelayString = "${orders.history.compaction.interval}")
+    public void compact() {
+        List<String> orderNumbers;
+        try {
+            Timestamp before = new Timestamp(System.currentTimeMillis() - compactionAge);
+            orderNumbers = statisticRepository.getUncompactedHistoryOrders(lastOrderNumber, before, batchSize);
+        } catch (DataAccessException e) {
+            log.error("Order history compaction lookup failed: {}", e.getMessage(), e);
+            return;
+        }
+        lastOrderNumber = orderNumbers.size() < batchSize ? "" : orderNumbers.get(orderNumbers.size() - 1);
+        int rewritten = 0;
+        for (String orderNumber : orderNumbers) {
+            try {
+                rewritten += statisticRepository.compactHistoryForOrder(orderNumber);
+            } catch (JsonProcessingException | DataAccessException e) {
+                log.error("Order history compaction failed for order {}: {}", orderNumber, e.getMessage(), e);
+            }
+        }
+        if (rewritten > 0) {
+            log.debug("Order history compaction rewrote {} records of {} orders", rewritten, orderNumbers.size());
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package spring.application.tree.data.statistic.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import spring.application.tree.data.exceptions.InvalidAttributesException;
+import spring.application.tree.data.orders.attributes.OrderHistoryEvent;
+import spring.application.tree.data.orders.models.OrderModel;
+import spring.application.tree.data.statistic.attributes.OrderHistoryMode;
+import spring.application.tree.data.statistic.models.OrderHistoryRecord;
+import spring.application.tree.data.statistic.repository.StatisticRepository;
+import spring.application.tree.data.utility.json.JsonCodec;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@PropertySource("classpath:orders.properties")
+public class OrderHistoryWriter {
+    private static final long SHUTDOWN_TIMEOUT = 10_000;
+
+    private final StatisticRepository statisticRepository;
+    private final MeterRegistry meterRegistry;
+    private final JsonCodec jsonCodec;
+    /**
+     * Outbox rows picked up by the latest relay pass
+     */
+    private final AtomicInteger outboxBacklog = new AtomicInteger();
+    /**
+     * Records committed while the queue was full, taken by the writer only once the queue is empty.
+     * While it holds records new ones are added behind them, so committing threads never append and the history of an order keeps its order
+     */
+    private final ConcurrentLinkedQueue<OrderHistoryRecord> overflow = new ConcurrentLinkedQueue<>();
+    /**
+     * Committing threads enqueue under the read lock, the final drain on shutdown holds the write lock
+     */
+    private final ReadWriteLock shutdownLock = new ReentrantReadWriteLock();
+    @Value("${orders.history.mode}")
+    private OrderHistoryMode mode;
+    @Value("${orders.history.queue.capacity}")
+    private int queueCapacity;
+    @Value("${orders.history.batch.size}")
+    private int batchSize;
+    @Value("${orders.history.flush.interval}")
+    private long flushInterval;
+    @Value("${orders.history.write.retries}")
+    private int writeRetries;
+    @Value("${orders.history.write.retry.backoff}")
+    private long retryBackoff;
+    private BlockingQueue<OrderHistoryRecord> queue;
+    private Timer writeLatency;
+    private Counter coalescedRecords;
+    private Counter queueOverflows;
+    private Counter failedWrites;
+    private Counter lostRecords;
+    private Thread writerThread;
+    private volatile boolean running;
+    /**
+     * Set once the queues are drained for the last time, records committed afterwards are parked in the outbox. Guarded by shutdownLock
+     */
+    private boolean stopped;
+    /**
+     * Records parked in the outbox by a failed write may still be waiting, set on start to pick up what a previous run left behind
+     */
+    private volatile boolean outboxPending = true;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        writeLatency = Timer.builder("order.history.write.latency")
+                .tag("mode", mode.name())
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        coalescedRecords = Counter.builder("order.history.coalesced").register(meterRegistry);
+        queueOverflows = Counter.builder("order.history.queue.overflow").register(meterRegistry);
+        failedWrites = Counter.builder("order.history.write.failed").register(meterRegistry);
+        lostRecords = Counter.builder("order.history.write.lost").register(meterRegistry);
+        Gauge.builder("order.history.queue.depth", this, writer -> writer.mode == OrderHistoryMode.OUTBOX ? writer.outboxBacklog.get() : writer.queue.size() + writer.overflow.size())
+                .tag("mode", mode.name())
+                .register(meterRegistry);
+        running = true;
+        writerThread = new Thread(this::run, "order-history-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.join(SHUTDOWN_TIMEOUT);
+        shutdownLock.writeLock().lock();
+        try {
+            stopped = true;
+            List<OrderHistoryRecord> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            remaining.addAll(overflow);
+            overflow.clear();
+            if (!remaining.isEmpty()) {
+                write(remaining);
+            }
+        } finally {
+            shutdownLock.writeLock().unlock();
+        }
+    }
+
+    public void submit(OrderModel order, OrderHistoryEvent event) throws InvalidAttributesException {
+        if (event == null) {
+            throw new InvalidAttributesException(String.format("Invalid history event: %s", event), "", LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
+        }
+        if (order == null || order.getOrderNumber() == null) {
+            log.error("Order history record is skipped, order has no order number: {}", order);
+            return;
+        }
+        OrderHistoryRecord record;
+        try {
+            record = new OrderHistoryRecord(order.getOrderNumber().toString(), jsonCodec.writeOrderState(order), event, new Timestamp(System.currentTimeMillis()));
+        } catch (JsonProcessingException e) {
+            log.debug(e.getMessage(), e);
+            return;
+        }
+        if (mode == OrderHistoryMode.OUTBOX) {
+            statisticRepository.addHistoryOutboxRecord(record);
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(record);
+                }
+            });
+        } else {
+            enqueue(record);
+        }
+    }
+
+    private void enqueue(OrderHistoryRecord record) {
+        shutdownLock.readLock().lock();
+        try {
+            if (stopped) {
+                park(List.of(record));
+                return;
+            }
+            if (overflow.isEmpty() && queue.offer(record)) {
+                return;
+            }
+            queueOverflows.increment();
+            overflow.add(record);
+        } finally {
+            shutdownLock.readLock().unlock();
+        }
+    }
+
+    private void run() {
+        List<OrderHistoryRecord> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                if (mode == OrderHistoryMode.OUTBOX) {
+                    relayOutbox();
+                    continue;
+                }
+                OrderHistoryRecord first = overflow.isEmpty() ? queue.poll(flushInterval, TimeUnit.MILLISECONDS) : queue.poll();
+                if (outboxPending) {
+                    drainParkedRecords();
+                }
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                } else {
+                    OrderHistoryRecord overflowed;
+                    while (batch.size() < batchSize && (overflowed = overflow.poll()) != null) {
+                        batch.add(overflowed);
+                    }
+                }
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Order history writer pass failed: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Retries failed appends with a doubling backoff, then parks the records in the outbox.
+     * While parked records are waiting new records are parked behind them, so the history of an order keeps its order
+     */
+    private void write(List<OrderHistoryRecord> records) {
+        List<OrderHistoryRecord> coalesced = OrderHistoryRecord.coalesce(records);
+        coalescedRecords.increment(records.size() - coalesced.size());
+        if (outboxPending) {
+            park(coalesced);
+            return;
+        }
+        long backoff = retryBackoff;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                writeLatency.record(() -> statisticRepository.addHistoryOrderTreeNodes(coalesced));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= writeRetries) {
+                    log.error("Order history write of {} records failed, they are parked in the outbox: {}", coalesced.size(), e.getMessage(), e);
+                    break;
+                }
+                log.warn("Order history write of {} records failed, retry {} of {} in {} ms: {}", coalesced.size(), attempt + 1, writeRetries, backoff, e.getMessage());
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            backoff *= 2;
+        }
+        failedWrites.increment(coalesced.size());
+        park(coalesced);
+    }
+
+    private void park(List<OrderHistoryRecord> records) {
+        try {
+            statisticRepository.addHistoryOutboxRecords(records);
+            outboxPending = true;
+        } catch (RuntimeException e) {
+            lostRecords.increment(records.size());
+            log.error("Order history records are lost, they could not be parked in the outbox either: {}", records, e);
+        }
+    }
+
+    /**
+     * Relays parked records until the outbox is empty, on failure they stay parked for the next pass.
+     * Parked records are only known to be gone once a pass holding the relay lock finds the outbox drained
+     */
+    private void drainParkedRecords() {
+        try {
+            int transferred;
+            while ((transferred = statisticRepository.transferHistoryOutbox(batchSize)) == batchSize) {
+                log.debug("Parked order history records relayed: {}", batchSize);
+            }
+            if (transferred == StatisticRepository.HISTORY_OUTBOX_LOCKED) {
+                log.debug("Parked order history records are relayed by another instance");
+                return;
+            }
+            outboxPending = false;
+        } catch (DataAccessException e) {
+            log.error("Parked order history records could not be relayed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void relayOutbox() throws InterruptedException {
+        int transferred = 0;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            transferred = statisticRepository.transferHistoryOutbox(batchSize);
+        } catch (DataAccessException e) {
+            log.error(e.getMessage(), e);
+        }
+        sample.stop(writeLatency);
+        outboxBacklog.set(Math.max(0, transferred));
+        if (transferred < batchSize) {
+            Thread.sleep(flushInterval);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import spring.application.tree.data.exceptions.InvalidAttributesException;
 import spring.application.tree.data.orders.attributes.OrderHistoryEvent;
 import spring.application.tree.data.orders.models.OrderModel;
 import spring.application.tree.data.statistic.models.OrderHistoryElement;
+import spring.application.tree.data.statistic.models.OrderHistoryPageModel;
 import spring.application.tree.data.statistic.repository.StatisticRepository;
 
 import java.math.BigInteger;
@@ -18,12 +19,21 @@ import java.util.List;
 @Slf4j
 public class StatisticService {
     private final StatisticRepository statisticRepository;
+    private final OrderHistoryWriter orderHistoryWriter;
 
     public List<OrderHistoryElement> getHistoryOrderTreeForOrder(BigInteger orderNumber) throws InvalidAttributesException {
         return statisticRepository.getHistoryOrderTreeForOrder(orderNumber);
     }
 
+    public OrderHistoryPageModel getHistoryPageForOrder(BigInteger orderNumber, Long fromVersion, Long toVersion, int limit) throws InvalidAttributesException {
+        return statisticRepository.getHistoryPageForOrder(orderNumber, fromVersion, toVersion, limit);
+    }
+
+    public OrderHistoryElement getLatestHistoryNode(BigInteger orderNumber) throws InvalidAttributesException {
+        return statisticRepository.getLatestHistoryNode(orderNumber);
+    }
+
     public void addHistoryOrderTreeNode(OrderModel order, OrderHistoryEvent event) throws InvalidAttributesException {
-        statisticRepository.addHistoryOrderTreeNode(order, event);
+        orderHistoryWriter.submit(order, event);
     }
 }
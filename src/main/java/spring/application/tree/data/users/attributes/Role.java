@@ -2,22 +2,38 @@ package spring.application.tree.data.users.attributes;
 
 import lombok.Getter;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import spring.application.tree.data.utility.attributes.OrdinalCodedEnum;
+import spring.application.tree.data.utility.attributes.OrdinalLookupTable;
 
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Getter
-public enum Role {
+public enum Role implements OrdinalCodedEnum {
     ROLE_ADMIN(Set.of(Permission.ADMIN_PERMISSION)),
     ROLE_SALESMAN(Set.of(Permission.SALESMAN_PERMISSION)),
     ROLE_CUSTOMER(Set.of(Permission.CUSTOMER_PERMISSION));
 
+    private static final OrdinalLookupTable<Role> LOOKUP_TABLE = OrdinalLookupTable.of(Role.class);
+
     private final Set<Permission> permissions;
 
     Role(Set<Permission> permissions) {
         this.permissions = permissions;
     }
 
+    /**
+     * Persisted through JPA as the declaration ordinal
+     */
+    @Override
+    public int getOrdinal() {
+        return ordinal();
+    }
+
+    public static Role fromOrdinal(int role) {
+        return LOOKUP_TABLE.get(role);
+    }
+
     public Set<SimpleGrantedAuthority> getAuthorities() {
         return permissions.stream().
                 map(permission -> new SimpleGrantedAuthority(permission.getPermission())).
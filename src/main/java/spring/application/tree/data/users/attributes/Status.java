@@ -1,11 +1,22 @@
 package spring.application.tree.data.users.attributes;
 
-import java.util.Arrays;
+import spring.application.tree.data.utility.attributes.OrdinalCodedEnum;
+import spring.application.tree.data.utility.attributes.OrdinalLookupTable;
 
-public enum Status {
+public enum Status implements OrdinalCodedEnum {
     ENABLED, DISABLED;
 
+    private static final OrdinalLookupTable<Status> LOOKUP_TABLE = OrdinalLookupTable.of(Status.class);
+
+    /**
+     * Persisted through JPA as the declaration ordinal
+     */
+    @Override
+    public int getOrdinal() {
+        return ordinal();
+    }
+
     public static Status fromOrdinal(int status) {
-        return Arrays.stream(Status.values()).filter(s -> s.ordinal() == status).findFirst().orElse(null);
+        return LOOKUP_TABLE.get(status);
     }
-}
\ No newline at end of file
+}
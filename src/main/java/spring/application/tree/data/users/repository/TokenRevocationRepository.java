@@ -0,0 +1,48 @@
+package spring.application.tree.data.users.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import spring.application.tree.data.users.security.token.TokenRevocation;
+import spring.application.tree.data.users.security.token.TokenRevocationBackend;
+import spring.application.tree.data.utility.loaders.SQLScript;
+import spring.application.tree.data.utility.loaders.SQLScriptRegistry;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "token.revocation.backend", havingValue = "jdbc")
+public class TokenRevocationRepository implements TokenRevocationBackend {
+    private final JdbcTemplate jdbcTemplate;
+    private final SQLScriptRegistry sqlScriptRegistry;
+
+    @Override
+    public void saveRevocation(String tokenHash, Date expiration) {
+        String saveRevokedTokenSQL = sqlScriptRegistry.getScript(SQLScript.SAVE_REVOKED_TOKEN);
+        log.debug("Save revoked token query: {}", saveRevokedTokenSQL);
+        jdbcTemplate.update(saveRevokedTokenSQL, tokenHash, new Timestamp(expiration.getTime()));
+    }
+
+    @Override
+    public List<TokenRevocation> getRevocations(long lastRevocationId, Date now) {
+        String getRevokedTokensSQL = sqlScriptRegistry.getScript(SQLScript.GET_REVOKED_TOKENS);
+        List<TokenRevocation> revocations = new ArrayList<>();
+        jdbcTemplate.query(getRevokedTokensSQL, (rs) -> {
+            revocations.add(new TokenRevocation(rs.getLong("id"), rs.getString("token_hash"), rs.getTimestamp("expires_at")));
+        }, lastRevocationId, new Timestamp(now.getTime()));
+        return revocations;
+    }
+
+    @Override
+    public void deleteExpiredRevocations(Date now) {
+        String deleteExpiredRevokedTokensSQL = sqlScriptRegistry.getScript(SQLScript.DELETE_EXPIRED_REVOKED_TOKENS);
+        jdbcTemplate.update(deleteExpiredRevokedTokensSQL, new Timestamp(now.getTime()));
+    }
+}
@@ -16,7 +16,8 @@ import spring.application.tree.data.users.models.AbstractCustomerModel;
 import spring.application.tree.data.users.models.AbstractUserModel;
 import spring.application.tree.data.users.repository.mappers.CustomerMapper;
 import spring.application.tree.data.users.security.DataEncoderTool;
-import spring.application.tree.data.utility.loaders.PropertyResourceLoader;
+import spring.application.tree.data.utility.loaders.SQLScript;
+import spring.application.tree.data.utility.loaders.SQLScriptRegistry;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -30,6 +31,7 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class UserDataAccessObject {
     private final JdbcTemplate jdbcTemplate;
+    private final SQLScriptRegistry sqlScriptRegistry;
     private final UserRepository userRepository;
     public AbstractUserModel getUserByLoginCredentials(String login) throws ApplicationException {
         if (login == null || login.isEmpty()) {
@@ -56,7 +58,7 @@ public class UserDataAccessObject {
                     Arrays.asList(Thread.currentThread().getStackTrace()).get(1).toString(),
                     LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String getCustomerByIDSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/users/getCustomerById.sql");
+        String getCustomerByIDSQL = sqlScriptRegistry.getScript(SQLScript.GET_CUSTOMER_BY_ID);
         log.debug("Get customer by ID query: {}", getCustomerByIDSQL);
         List<AbstractCustomerModel> abstractCustomerModels = new ArrayList<>();
         try {
@@ -86,8 +88,8 @@ public class UserDataAccessObject {
     public void saveCustomer(AbstractCustomerModel abstractCustomerModel) throws InvalidAttributesException {
         abstractCustomerModel.setPassword(DataEncoderTool.encodeData(abstractCustomerModel.getPassword()));
         validateUserModel(abstractCustomerModel);
-        String saveUserSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/users/saveUser.sql");
-        String saveCustomerSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/users/saveCustomer.sql");
+        String saveUserSQL = sqlScriptRegistry.getScript(SQLScript.SAVE_USER);
+        String saveCustomerSQL = sqlScriptRegistry.getScript(SQLScript.SAVE_CUSTOMER);
         log.debug("Save user query: {}", saveUserSQL);
         log.debug("Save customer query: {}", saveCustomerSQL);
         try {
@@ -113,8 +115,8 @@ public class UserDataAccessObject {
     public void updateCustomer(AbstractCustomerModel abstractCustomerModel) throws InvalidAttributesException {
         abstractCustomerModel.setPassword(DataEncoderTool.encodeData(abstractCustomerModel.getPassword()));
         validateUserModel(abstractCustomerModel);
-        String updateUserSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/users/updateUser.sql");
-        String updateCustomerSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/users/updateCustomer.sql");
+        String updateUserSQL = sqlScriptRegistry.getScript(SQLScript.UPDATE_USER);
+        String updateCustomerSQL = sqlScriptRegistry.getScript(SQLScript.UPDATE_CUSTOMER);
         log.debug("Update user query: {}", updateUserSQL);
         log.debug("Update customer query: {}", updateCustomerSQL);
         try {
@@ -140,7 +142,7 @@ public class UserDataAccessObject {
                     Arrays.asList(Thread.currentThread().getStackTrace()).get(1).toString(),
                     LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        String deleteCustomerByIdSQL = PropertyResourceLoader.getSQLScript("classpath:/sql/users/deleteCustomerById.sql");
+        String deleteCustomerByIdSQL = sqlScriptRegistry.getScript(SQLScript.DELETE_CUSTOMER_BY_ID);
         log.debug("Delete customer by ID query: {}", deleteCustomerByIdSQL);
         try {
             jdbcTemplate.update(deleteCustomerByIdSQL, id);
@@ -173,7 +175,7 @@ public class UserDataAccessObject {
                     Arrays.asList(Thread.currentThread().getStackTrace()).get(1).toString(),
                     LocalDateTime.now(), HttpStatus.NOT_ACCEPTABLE);
         }
-        userRepository.updateUserPassword(login, newPassword);
+        userRepository.updateUserPassword(login, DataEncoderTool.encodeData(newPassword));
     }
 
     private void validateUserModel(AbstractUserModel abstractUserModel) throws InvalidAttributesException {
@@ -0,0 +1,69 @@
+package spring.application.tree.data.users.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import spring.application.tree.data.users.models.AbstractUserModel;
+import spring.application.tree.data.users.security.token.AuthorizationTokenCache;
+
+import java.time.Duration;
+
+@Component
+@PropertySource("classpath:users.properties")
+public class PrincipalCache {
+    /**
+     * Username -> Principal
+     */
+    private final Cache<String, AbstractUserModel> principals;
+    private final AuthorizationTokenCache authorizationTokenCache;
+
+    public PrincipalCache(@Value("${principal.cache.size}") long cacheSize,
+                          @Value("${principal.cache.ttl}") long cacheTimeToLive,
+                          AuthorizationTokenCache authorizationTokenCache,
+                          MeterRegistry meterRegistry) {
+        this.principals = Caffeine.newBuilder()
+                                  .maximumSize(cacheSize)
+                                  .expireAfterWrite(Duration.ofSeconds(cacheTimeToLive))
+                                  .recordStats()
+                                  .build();
+        this.authorizationTokenCache = authorizationTokenCache;
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "principals");
+    }
+
+    public AbstractUserModel get(String username) {
+        return principals.getIfPresent(username);
+    }
+
+    public void put(String username, AbstractUserModel principal) {
+        principals.put(username, principal);
+    }
+
+    /**
+     * Drops the principal and every token authorized with it, repeated after commit so a concurrent reload can not keep stale data
+     */
+    public void invalidate(String username) {
+        if (username == null) {
+            return;
+        }
+        evict(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(username);
+                }
+            });
+        }
+    }
+
+    private void evict(String username) {
+        principals.invalidate(username);
+        authorizationTokenCache.invalidateUser(username);
+    }
+}
@@ -17,10 +17,14 @@ import spring.application.tree.data.users.service.UserService;
 @RequiredArgsConstructor
 public class UserDetailsImplementationService implements UserDetailsService {
     private final UserService userService;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String login) throws UsernameNotFoundException {
-        AbstractUserModel user = null;
+        AbstractUserModel user = login == null ? null : principalCache.get(login);
+        if (user != null) {
+            return user;
+        }
         try {
             user = userService.getUserByLoginCredentials(login);
         } catch (ApplicationException e) {
@@ -29,6 +33,7 @@ public class UserDetailsImplementationService implements UserDetailsService {
         if (user == null) {
             throw new UsernameNotFoundException(String.format("No users were found by following username: %s", login));
         }
+        principalCache.put(login, user);
         return user;
     }
 }
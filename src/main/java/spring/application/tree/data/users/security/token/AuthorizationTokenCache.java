@@ -0,0 +1,81 @@
+package spring.application.tree.data.users.security.token;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@PropertySource("classpath:token.properties")
+public class AuthorizationTokenCache {
+    /**
+     * Token SHA-256 -> Verified token, each entry lives until the token expires
+     */
+    private final Cache<String, AuthorizedToken> authorizedTokens;
+    /**
+     * Username -> Generation taken on the latest invalidation, cached tokens of another generation are dropped on their next hit.
+     * Entries outlive every token cached before them, and generations are never reused, so an expired entry never revives a token
+     */
+    private final Cache<String, Long> userGenerations;
+    private final AtomicLong lastGeneration = new AtomicLong();
+
+    public AuthorizationTokenCache(@Value("${token.cache.size}") long cacheSize, @Value("${token.duration}") long tokenDuration) {
+        this.authorizedTokens = Caffeine.newBuilder()
+                                        .maximumSize(cacheSize)
+                                        .expireAfter(new Expiry<String, AuthorizedToken>() {
+                                            @Override
+                                            public long expireAfterCreate(String key, AuthorizedToken value, long currentTime) {
+                                                return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.getExpiration().getTime() - AuthorizationTokenUtility.now().getTime()));
+                                            }
+
+                                            @Override
+                                            public long expireAfterUpdate(String key, AuthorizedToken value, long currentTime, long currentDuration) {
+                                                return expireAfterCreate(key, value, currentTime);
+                                            }
+
+                                            @Override
+                                            public long expireAfterRead(String key, AuthorizedToken value, long currentTime, long currentDuration) {
+                                                return currentDuration;
+                                            }
+                                        })
+                                        .build();
+        this.userGenerations = Caffeine.newBuilder()
+                                       .expireAfterWrite(tokenDuration, TimeUnit.SECONDS)
+                                       .build();
+    }
+
+    public AuthorizedToken get(String token) {
+        String digest = TokenDigest.hash(token);
+        AuthorizedToken authorizedToken = authorizedTokens.getIfPresent(digest);
+        if (authorizedToken != null && authorizedToken.getGeneration() != generation(authorizedToken.getUsername())) {
+            authorizedTokens.asMap().remove(digest, authorizedToken);
+            return null;
+        }
+        return authorizedToken;
+    }
+
+    /**
+     * Has to be read before the principal is resolved, so a principal loaded before an invalidation is never cached as current
+     */
+    public long generation(String username) {
+        Long generation = userGenerations.getIfPresent(username);
+        return generation == null ? 0L : generation;
+    }
+
+    public void put(String token, AuthorizedToken authorizedToken) {
+        authorizedTokens.put(TokenDigest.hash(token), authorizedToken);
+    }
+
+    public void invalidate(String token) {
+        authorizedTokens.invalidate(TokenDigest.hash(token));
+    }
+
+    public void invalidateUser(String username) {
+        userGenerations.put(username, lastGeneration.incrementAndGet());
+    }
+}
@@ -1,6 +1,7 @@
 package spring.application.tree.data.users.security.token;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -24,17 +25,21 @@ import java.util.function.Function;
 @Component
 @PropertySource("classpath:token.properties")
 public class AuthorizationTokenUtility {
-    /**
-     * Username -> Token
-     */
-    private final Map<String, String> blacklistedTokens = new HashMap<>();
     @Value("${token.duration}")
     private int tokenValidityDuration;
     private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+    private final AuthorizationTokenCache authorizationTokenCache;
+    private final TokenRevocationStore tokenRevocationStore;
+
+    public AuthorizationTokenUtility(AuthorizationTokenCache authorizationTokenCache, TokenRevocationStore tokenRevocationStore) {
+        this.authorizationTokenCache = authorizationTokenCache;
+        this.tokenRevocationStore = tokenRevocationStore;
+    }
 
     public void blacklistToken(String token) {
-        String username = getUsernameFromToken(token);
-        blacklistedTokens.put(username, token);
+        tokenRevocationStore.revoke(token, getExpirationDateFromToken(token));
+        authorizationTokenCache.invalidate(token);
     }
 
     public String getUsernameFromToken(String token) {
@@ -51,19 +56,21 @@ public class AuthorizationTokenUtility {
     }
 
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expiration = getExpirationDateFromToken(token);
-        Date now = Date.from(LocalDateTime.now(Clock.systemDefaultZone()).toInstant(ZoneOffset.ofTotalSeconds(0)));
-        return expiration.before(now) || blacklistedTokens.containsValue(token);
+    private boolean isTokenExpired(String token, Date expiration) {
+        return expiration.before(now()) || tokenRevocationStore.isRevoked(token);
+    }
+
+    /**
+     * Token timestamps are issued against this clock
+     */
+    static Date now() {
+        return Date.from(LocalDateTime.now(Clock.systemDefaultZone()).toInstant(ZoneOffset.ofTotalSeconds(0)));
     }
 
     public String generateToken(UserDetails userDetails, @NonNull HttpServletRequest request) {
-        if (blacklistedTokens.containsKey(userDetails.getUsername()) && !isTokenExpired(blacklistedTokens.get(userDetails.getUsername()))) {
-            return blacklistedTokens.get(userDetails.getUsername());
-        }
         Map<String, String> claims = new HashMap<>();
         claims.put("User-Agent", request.getHeader("User-Agent"));
         claims.put("IP", request.getRemoteAddr());
@@ -74,15 +81,36 @@ public class AuthorizationTokenUtility {
                            .setExpiration(Date.from(LocalDateTime.now(Clock.systemDefaultZone()).plusSeconds(tokenValidityDuration).toInstant(ZoneOffset.ofTotalSeconds(0))))
                            .signWith(key)
                            .compact();
-        blacklistedTokens.remove(userDetails.getUsername());
         return token;
     }
 
     public boolean validateToken(String token, UserDetails userDetails, @NonNull HttpServletRequest request) {
-        String username = getUsernameFromToken(token);
         Claims claims = getAllClaimsFromToken(token);
         String userAgent = (String) claims.get("User-Agent");
         String address = (String) claims.get("IP");
-        return username.equals(userDetails.getUsername()) && userAgent.equals(request.getHeader("User-Agent")) && address.equals(request.getRemoteAddr()) && !isTokenExpired(token) && !blacklistedTokens.containsValue(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && userAgent.equals(request.getHeader("User-Agent")) && address.equals(request.getRemoteAddr()) && !isTokenExpired(token, claims.getExpiration());
+    }
+
+    /**
+     * Verifies the token once, resolves its principal and keeps both in the cache until the token expires
+     */
+    public AuthorizedToken authorizeToken(String token, Function<String, UserDetails> principalResolver) {
+        AuthorizedToken authorizedToken = authorizationTokenCache.get(token);
+        if (authorizedToken != null) {
+            return isTokenExpired(token, authorizedToken.getExpiration()) ? null : authorizedToken;
+        }
+        Claims claims = getAllClaimsFromToken(token);
+        String username = claims.getSubject();
+        if (username == null || username.isEmpty() || isTokenExpired(token, claims.getExpiration())) {
+            return null;
+        }
+        long generation = authorizationTokenCache.generation(username);
+        UserDetails userDetails = principalResolver.apply(username);
+        if (!username.equals(userDetails.getUsername())) {
+            return null;
+        }
+        authorizedToken = new AuthorizedToken(username, (String) claims.get("User-Agent"), (String) claims.get("IP"), claims.getExpiration(), userDetails, generation);
+        authorizationTokenCache.put(token, authorizedToken);
+        return authorizedToken;
     }
 }
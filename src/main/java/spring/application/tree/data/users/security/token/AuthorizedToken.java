@@ -0,0 +1,30 @@
+package spring.application.tree.data.users.security.token;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Claims of a token whose signature was verified, together with the principal it resolved to
+ */
+@Getter
+@AllArgsConstructor
+public class AuthorizedToken {
+    private final String username;
+    private final String userAgent;
+    private final String address;
+    private final Date expiration;
+    private final UserDetails userDetails;
+    /**
+     * Generation of the user when the principal was resolved
+     */
+    private final long generation;
+
+    public boolean isBoundTo(HttpServletRequest request) {
+        return Objects.equals(userAgent, request.getHeader("User-Agent")) && Objects.equals(address, request.getRemoteAddr());
+    }
+}
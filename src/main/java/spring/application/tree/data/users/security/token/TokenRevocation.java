@@ -0,0 +1,14 @@
+package spring.application.tree.data.users.security.token;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+@Getter
+@AllArgsConstructor
+public class TokenRevocation {
+    private final long id;
+    private final String tokenHash;
+    private final Date expiration;
+}
@@ -0,0 +1,18 @@
+package spring.application.tree.data.users.security.token;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Persistent storage shared by all instances, revocations are written through and pulled periodically
+ */
+public interface TokenRevocationBackend {
+    void saveRevocation(String tokenHash, Date expiration);
+
+    /**
+     * Revocations with an ID above lastRevocationId that are not expired at the given moment, ordered by ID
+     */
+    List<TokenRevocation> getRevocations(long lastRevocationId, Date now);
+
+    void deleteExpiredRevocations(Date now);
+}
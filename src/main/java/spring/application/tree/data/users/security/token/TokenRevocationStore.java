@@ -0,0 +1,98 @@
+package spring.application.tree.data.users.security.token;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+@PropertySource("classpath:token.properties")
+public class TokenRevocationStore {
+    /**
+     * Token SHA-256 -> Expiration, entries are dropped when the token expires and never by size, so a revocation can not be forgotten early
+     */
+    private final Cache<String, Date> revokedTokens = Caffeine.newBuilder()
+                                                              .expireAfter(new Expiry<String, Date>() {
+                                                                  @Override
+                                                                  public long expireAfterCreate(String key, Date expiration, long currentTime) {
+                                                                      return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiration.getTime() - AuthorizationTokenUtility.now().getTime()));
+                                                                  }
+
+                                                                  @Override
+                                                                  public long expireAfterUpdate(String key, Date expiration, long currentTime, long currentDuration) {
+                                                                      return expireAfterCreate(key, expiration, currentTime);
+                                                                  }
+
+                                                                  @Override
+                                                                  public long expireAfterRead(String key, Date expiration, long currentTime, long currentDuration) {
+                                                                      return currentDuration;
+                                                                  }
+                                                              })
+                                                              .build();
+    private final TokenRevocationBackend backend;
+    /**
+     * Highest backend revocation ID already pulled into memory
+     */
+    private volatile long lastRevocationId;
+    /**
+     * IDs below lastRevocationId that are pulled again, an ID is taken at insert and its row may commit after higher ones were read
+     */
+    @Value("${token.revocation.sync.overlap}")
+    private long syncOverlap;
+
+    public TokenRevocationStore(ObjectProvider<TokenRevocationBackend> backendProvider) {
+        this.backend = backendProvider.getIfAvailable();
+    }
+
+    @PostConstruct
+    public void load() {
+        synchronize();
+    }
+
+    public void revoke(String token, Date expiration) {
+        if (expiration.before(AuthorizationTokenUtility.now())) {
+            return;
+        }
+        String tokenHash = TokenDigest.hash(token);
+        revokedTokens.put(tokenHash, expiration);
+        if (backend != null) {
+            try {
+                backend.saveRevocation(tokenHash, expiration);
+            } catch (DataAccessException e) {
+                log.error(String.format("Token revocation was kept in memory only: %s", e.getMessage()), e);
+            }
+        }
+    }
+
+    public boolean isRevoked(String token) {
+        return revokedTokens.getIfPresent(TokenDigest.hash(token)) != null;
+    }
+
+    @Scheduled(fixedDelayString = "${token.revocation.sync.interval}", initialDelayString = "${token.revocation.sync.interval}")
+    public void synchronize() {
+        if (backend == null) {
+            return;
+        }
+        Date now = AuthorizationTokenUtility.now();
+        try {
+            backend.deleteExpiredRevocations(now);
+            for (TokenRevocation revocation : backend.getRevocations(Math.max(0, lastRevocationId - syncOverlap), now)) {
+                revokedTokens.put(revocation.getTokenHash(), revocation.getExpiration());
+                lastRevocationId = Math.max(lastRevocationId, revocation.getId());
+            }
+        } catch (DataAccessException e) {
+            log.error(String.format("Token revocations were not synchronized: %s", e.getMessage()), e);
+        }
+    }
+}
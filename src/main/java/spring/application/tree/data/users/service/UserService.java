@@ -12,25 +12,25 @@ import spring.application.tree.data.exceptions.ApplicationException;
 import spring.application.tree.data.exceptions.DataNotFoundException;
 import spring.application.tree.data.exceptions.InvalidAttributesException;
 import spring.application.tree.data.exceptions.NotAllowedException;
-import spring.application.tree.data.orders.models.OrderModel;
-import spring.application.tree.data.orders.service.OrderService;
+import spring.application.tree.data.orders.models.OperatorAssignmentModel;
+import spring.application.tree.data.orders.service.OrderAssignmentEngine;
 import spring.application.tree.data.users.attributes.Role;
 import spring.application.tree.data.users.models.AbstractCustomerModel;
 import spring.application.tree.data.users.models.AbstractUserModel;
 import spring.application.tree.data.users.repository.UserDataAccessObject;
-import spring.application.tree.data.utility.models.TrioValue;
+import spring.application.tree.data.users.security.PrincipalCache;
 
 import javax.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class UserService {
-    private final OrderService orderService;
+    private final OrderAssignmentEngine orderAssignmentEngine;
     private final UserDataAccessObject userDataAccessObject;
+    private final PrincipalCache principalCache;
 
     public static AbstractUserModel getCurrentlyAuthenticatedUser() {
         SecurityContext securityContext = SecurityContextHolder.getContext();
@@ -100,6 +100,7 @@ public class UserService {
         }
         oldUser.mergeChanges(updatedUser);
         userDataAccessObject.updateUser(oldUser);
+        principalCache.invalidate(oldUser.getUsername());
     }
 
     public void updateCustomer(AbstractCustomerModel abstractCustomerModel) throws InvalidAttributesException, DataNotFoundException {
@@ -112,6 +113,12 @@ public class UserService {
         oldCustomer.mergeChanges(abstractCustomerModel);
         oldCustomer.updatePersonalData(abstractCustomerModel);
         userDataAccessObject.updateCustomer(oldCustomer);
+        principalCache.invalidate(oldCustomer.getUsername());
+    }
+
+    public void updateUserPassword(String login, String newPassword) throws InvalidAttributesException {
+        userDataAccessObject.updateUserPassword(login, newPassword);
+        principalCache.invalidate(login);
     }
 
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
@@ -128,6 +135,7 @@ public class UserService {
             passOperatorOrdersToAnotherOperators(id, null);
         }
         userDataAccessObject.deleteUserById(id);
+        principalCache.invalidate(abstractUserModel == null ? null : abstractUserModel.getUsername());
         SecurityContextHolder.clearContext();
         httpRequest.getSession().invalidate();
     }
@@ -141,6 +149,7 @@ public class UserService {
             throw new NotAllowedException("Admin`s account deletion is not allowed", "", LocalDateTime.now(), HttpStatus.CONFLICT);
         }
         userDataAccessObject.deleteUserById(id);
+        principalCache.invalidate(abstractUserModel.getUsername());
     }
 
     public void deleteCustomerAccount(Integer id) throws NotAllowedException, InvalidAttributesException {
@@ -150,27 +159,12 @@ public class UserService {
                     Arrays.asList(Thread.currentThread().getStackTrace()).get(1).toString(),
                     LocalDateTime.now(), HttpStatus.FORBIDDEN);
         }
+        AbstractUserModel abstractUserModel = userDataAccessObject.getUserById(id);
         userDataAccessObject.deleteCustomerByUserId(id);
+        principalCache.invalidate(abstractUserModel == null ? null : abstractUserModel.getUsername());
     }
 
-    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = Exception.class)
-    public void passOperatorOrdersToAnotherOperators(int operatorId, List<Integer> orderIds) throws InvalidAttributesException {
-        final int orderPerOperatorLimit = 50;
-        if (orderIds == null) {
-            orderIds = orderService.getOrdersAssignedToOperator(operatorId).stream().map(OrderModel::getId).collect(Collectors.toList());
-        }
-        List<TrioValue<Integer, String, Integer>> operatorToOrderTakenNumber = orderService.getOrderTakenNumberPerOperator();
-        for (TrioValue<Integer, String, Integer> entry : operatorToOrderTakenNumber) {
-            if (entry.getKey() == operatorId || entry.getData() == orderPerOperatorLimit) {
-                continue;
-            }
-            List<Integer> subIds = orderIds.subList(0, orderPerOperatorLimit - entry.getData());
-            orderService.assignOrderToOperator(subIds, operatorId);
-            orderIds = orderIds.subList(orderPerOperatorLimit - entry.getData(), orderIds.size());
-        }
-        if (orderIds.size() > 0) {
-            throw new RuntimeException("Operator can not be deleted as far as his orders can not be reassigned, available slots are not enough");
-        }
-        orderService.removeOrdersFromOperator(null, operatorId);
+    public List<OperatorAssignmentModel> passOperatorOrdersToAnotherOperators(int operatorId, List<Integer> orderIds) throws InvalidAttributesException {
+        return orderAssignmentEngine.reassignOperatorOrders(operatorId, orderIds);
     }
 }
@@ -0,0 +1,8 @@
+package spring.application.tree.data.utility.attributes;
+
+/**
+ * Enum persisted as an integer code, constants are resolved back through an {@link OrdinalLookupTable}
+ */
+public interface OrdinalCodedEnum {
+    int getOrdinal();
+}
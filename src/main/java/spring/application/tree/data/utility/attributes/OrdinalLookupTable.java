@@ -0,0 +1,39 @@
+package spring.application.tree.data.utility.attributes;
+
+import java.util.Arrays;
+
+/**
+ * Dense array indexed by the ordinal code, built once per enum so lookups neither scan nor allocate
+ */
+public final class OrdinalLookupTable<E extends Enum<E> & OrdinalCodedEnum> {
+    private final E[] constants;
+
+    private OrdinalLookupTable(E[] constants) {
+        this.constants = constants;
+    }
+
+    public static <E extends Enum<E> & OrdinalCodedEnum> OrdinalLookupTable<E> of(Class<E> type) {
+        E[] values = type.getEnumConstants();
+        int maxOrdinal = Arrays.stream(values).mapToInt(OrdinalCodedEnum::getOrdinal).max().orElse(-1);
+        E[] constants = Arrays.copyOf(values, maxOrdinal + 1);
+        Arrays.fill(constants, null);
+        for (E value : values) {
+            if (value.getOrdinal() < 0) {
+                throw new IllegalStateException(String.format("%s.%s has a negative ordinal code", type.getSimpleName(), value.name()));
+            }
+            if (constants[value.getOrdinal()] != null) {
+                throw new IllegalStateException(String.format("%s.%s and %s share ordinal code %d", type.getSimpleName(),
+                        constants[value.getOrdinal()].name(), value.name(), value.getOrdinal()));
+            }
+            constants[value.getOrdinal()] = value;
+        }
+        return new OrdinalLookupTable<>(constants);
+    }
+
+    /**
+     * @return constant with the given code or null when there is none
+     */
+    public E get(int ordinal) {
+        return ordinal >= 0 && ordinal < constants.length ? constants[ordinal] : null;
+    }
+}
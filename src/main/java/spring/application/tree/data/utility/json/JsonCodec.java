@@ -0,0 +1,99 @@
+package spring.application.tree.data.utility.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.stereotype.Component;
+import spring.application.tree.data.orders.models.OrderModel;
+import spring.application.tree.data.orders.models.ProductModel;
+import spring.application.tree.web.webscoket.models.WebSocketMessage;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-built readers and writers, all immutable and safe to share between threads.
+ * Formats match the default ObjectMapper the callers used to construct per call.
+ */
+@Component
+public class JsonCodec {
+    private static final TypeReference<Map<String, String>> PRODUCT_DESCRIPTION_TYPE = new TypeReference<>() {};
+    private static final TypeReference<Map<String, Object>> RESPONSE_BODY_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<ProductModel>> PRODUCT_LIST_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<WebSocketMessage>> WEB_SOCKET_MESSAGES_TYPE = new TypeReference<>() {};
+
+    private final ObjectReader productDescriptionReader;
+    private final ObjectWriter productDescriptionWriter;
+    private final ObjectReader orderStateReader;
+    private final ObjectWriter orderStateWriter;
+    private final ObjectReader treeReader;
+    private final ObjectWriter treeWriter;
+    private final ObjectWriter productListWriter;
+    private final ObjectWriter responseBodyWriter;
+    private final ObjectWriter webSocketMessageWriter;
+    private final ObjectWriter webSocketMessagesWriter;
+
+    public JsonCodec() {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectMapper webSocketMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        this.productDescriptionReader = mapper.readerFor(PRODUCT_DESCRIPTION_TYPE);
+        this.productDescriptionWriter = mapper.writerFor(PRODUCT_DESCRIPTION_TYPE);
+        this.orderStateReader = mapper.readerFor(OrderModel.class);
+        this.orderStateWriter = mapper.writerFor(OrderModel.class);
+        this.treeReader = mapper.readerFor(JsonNode.class);
+        this.treeWriter = mapper.writerFor(JsonNode.class);
+        this.productListWriter = mapper.writerFor(PRODUCT_LIST_TYPE);
+        this.responseBodyWriter = mapper.writerFor(RESPONSE_BODY_TYPE);
+        this.webSocketMessageWriter = webSocketMapper.writerFor(WebSocketMessage.class);
+        this.webSocketMessagesWriter = webSocketMapper.writerFor(WEB_SOCKET_MESSAGES_TYPE);
+    }
+
+    public Map<String, String> readProductDescription(String description) throws JsonProcessingException {
+        return description == null ? new HashMap<>() : productDescriptionReader.readValue(description);
+    }
+
+    public String writeProductDescription(Map<String, String> description) throws JsonProcessingException {
+        return productDescriptionWriter.writeValueAsString(description);
+    }
+
+    public OrderModel readOrderState(String state) throws JsonProcessingException {
+        return state == null ? null : orderStateReader.readValue(state);
+    }
+
+    public String writeOrderState(OrderModel order) throws JsonProcessingException {
+        return orderStateWriter.writeValueAsString(order);
+    }
+
+    public OrderModel readOrderState(JsonNode state) throws JsonProcessingException {
+        return state == null || state.isNull() ? null : orderStateReader.treeToValue(state, OrderModel.class);
+    }
+
+    public JsonNode readTree(String json) throws JsonProcessingException {
+        return json == null ? null : treeReader.readTree(json);
+    }
+
+    public String writeTree(JsonNode tree) throws JsonProcessingException {
+        return tree == null ? null : treeWriter.writeValueAsString(tree);
+    }
+
+    public byte[] writeProducts(List<ProductModel> products) throws JsonProcessingException {
+        return productListWriter.writeValueAsBytes(products);
+    }
+
+    public String writeResponseBody(Map<String, Object> responseBody) throws JsonProcessingException {
+        return responseBodyWriter.writeValueAsString(responseBody);
+    }
+
+    public String writeWebSocketMessage(WebSocketMessage message) throws JsonProcessingException {
+        return webSocketMessageWriter.writeValueAsString(message);
+    }
+
+    public String writeWebSocketMessages(List<WebSocketMessage> messages) throws JsonProcessingException {
+        return webSocketMessagesWriter.writeValueAsString(messages);
+    }
+}
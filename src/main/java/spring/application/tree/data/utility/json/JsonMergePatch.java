@@ -0,0 +1,80 @@
+package spring.application.tree.data.utility.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * RFC 7386 merge patches, arrays and scalars are replaced as a whole and a null member removes the field
+ */
+public class JsonMergePatch {
+    /**
+     * @return patch turning source into target
+     */
+    public static JsonNode diff(JsonNode source, JsonNode target) {
+        if (source == null || !source.isObject() || target == null || !target.isObject()) {
+            return target == null ? JsonNodeFactory.instance.nullNode() : target;
+        }
+        ObjectNode patch = JsonNodeFactory.instance.objectNode();
+        Iterator<String> sourceFields = source.fieldNames();
+        while (sourceFields.hasNext()) {
+            String field = sourceFields.next();
+            if (!target.has(field)) {
+                patch.putNull(field);
+            }
+        }
+        Iterator<Map.Entry<String, JsonNode>> targetFields = target.fields();
+        while (targetFields.hasNext()) {
+            Map.Entry<String, JsonNode> field = targetFields.next();
+            JsonNode previous = source.get(field.getKey());
+            if (previous == null || !previous.equals(field.getValue())) {
+                patch.set(field.getKey(), previous != null && previous.isObject() && field.getValue().isObject()
+                        ? diff(previous, field.getValue())
+                        : field.getValue());
+            }
+        }
+        return patch;
+    }
+
+    /**
+     * @return copy of target with the patch applied, target itself is left untouched
+     */
+    public static JsonNode apply(JsonNode target, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            return patch;
+        }
+        ObjectNode result = target != null && target.isObject() ? ((ObjectNode) target).deepCopy() : JsonNodeFactory.instance.objectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), apply(result.get(field.getKey()), field.getValue()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Null members can not be told apart from removals in a merge patch, documents are diffed without them
+     * @return copy of the document without null object members
+     */
+    public static JsonNode withoutNulls(JsonNode document) {
+        if (document == null || !document.isObject()) {
+            return document;
+        }
+        ObjectNode result = JsonNodeFactory.instance.objectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = document.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (!field.getValue().isNull()) {
+                result.set(field.getKey(), withoutNulls(field.getValue()));
+            }
+        }
+        return result;
+    }
+}
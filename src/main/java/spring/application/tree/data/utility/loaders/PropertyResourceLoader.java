@@ -3,23 +3,15 @@ package spring.application.tree.data.utility.loaders;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.util.FileCopyUtils;
-import org.stringtemplate.v4.ST;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 
 public class PropertyResourceLoader {
-    private static String getSQLScript(Resource resource) {
+    public static String getSQLScript(Resource resource) {
         try {
-            return FileCopyUtils.copyToString(new InputStreamReader(resource.getInputStream()));
-        } catch (IOException e) {
-            throw new RuntimeException(String.format("Can not load resource: %s", resource.getDescription()));
-        }
-    }
-
-    private static ST getSQLScriptTemplate(Resource resource) {
-        try {
-            return new ST(FileCopyUtils.copyToString(new InputStreamReader(resource.getInputStream())));
+            return FileCopyUtils.copyToString(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
         } catch (IOException e) {
             throw new RuntimeException(String.format("Can not load resource: %s", resource.getDescription()));
         }
@@ -30,10 +22,4 @@ public class PropertyResourceLoader {
         Resource resource = resourceLoader.getResource(location);
         return getSQLScript(resource);
     }
-
-    public static ST getSQLScriptTemplate(String location) {
-        DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
-        Resource resource = resourceLoader.getResource(location);
-        return getSQLScriptTemplate(resource);
-    }
 }
@@ -0,0 +1,89 @@
+package spring.application.tree.data.utility.loaders;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public enum SQLScript {
+    ASSIGN_AVAILABLE_ORDER_TO_OPERATOR("orders/assignAvailableOrderToOperator.sql"),
+    ASSIGN_ORDER_TO_OPERATOR("orders/assignOrderToOperator.sql"),
+    CREATE_ORDER("orders/createOrder.sql"),
+    DELETE_ORDER("orders/deleteOrder.sql"),
+    GET_AVAILABLE_ORDERS("orders/getAvailableOrders.st", "cursor", "limit"),
+    GET_CUSTOMER_ORDERS("orders/getCustomerOrders.st", "cursor", "limit"),
+    GET_CUSTOMER_ORDERS_WITH_PRODUCTS("orders/getCustomerOrdersWithProducts.st", "cursor", "limit"),
+    GET_ORDER_BY_ID("orders/getOrderById.sql"),
+    GET_ORDER_WITH_PRODUCTS_BY_ID("orders/getOrderWithProductsById.sql"),
+    GET_ORDER_OPERATORS("orders/getOrderOperators.sql"),
+    GET_ORDERS_ASSIGNED_TO_OPERATOR("orders/getOrdersAssignedToOperator.sql"),
+    GET_ORDERS_ASSIGNED_TO_OPERATORS("orders/getOrdersAssignedToOperators.st", "limit"),
+    GET_ORDERS_BY_CRITERIA("orders/getOrdersByCriteria.st", "productIds", "orderNumbers", "orderStatuses", "bookingTimeBottom", "bookingTimeTop", "costBottom", "costTop", "cursor", "limit"),
+    GET_ORDERS_TAKEN_NUMBER_PER_OPERATOR("orders/getOrdersTakenNumberPerOperator.sql"),
+    GET_UNASSIGNED_ORDER_IDS("orders/getUnassignedOrderIds.sql"),
+    LOCK_ORDERS_ASSIGNED_TO_OPERATOR("orders/lockOrdersAssignedToOperator.sql"),
+    REMOVE_ORDERS_FROM_OPERATOR("orders/removeOrdersFromOperator.st", "orderIds"),
+    TRANSFER_ORDER_INTO_PAID_STATUS("orders/transferOrderIntoPaidStatus.sql"),
+    UPDATE_ORDER_DELIVERY_DETAILS("orders/updateOrderDeliveryDetails.sql"),
+    UPDATE_ORDER_STATUS("orders/updateOrderStatus.sql"),
+    ASSIGN_PRODUCT_TO_ORDER("orders/products/assignProductToOrder.sql"),
+    COUNT_PRODUCT_ASSIGNATION("orders/products/countProductAssignation.sql"),
+    COUNT_PRODUCTS_BY_NAME("orders/products/countProductsByName.sql"),
+    CREATE_PRODUCT("orders/products/createProduct.sql"),
+    DECREMENT_ORDER_LINE_QUANTITY("orders/products/decrementOrderLineQuantity.sql"),
+    DECREMENT_PRODUCT_AMOUNT("orders/products/decrementProductAmount.sql"),
+    DELETE_PRODUCT("orders/products/deleteProduct.sql"),
+    GET_ORDER_PRODUCTS("orders/products/getOrderProducts.sql"),
+    GET_ORDERS_PRODUCTS("orders/products/getOrdersProducts.sql"),
+    GET_PRODUCT("orders/products/getProduct.sql"),
+    GET_PRODUCTS("orders/products/getProducts.sql"),
+    GET_PRODUCTS_BY_IDS("orders/products/getProductsByIds.sql"),
+    INCREMENT_PRODUCT_AMOUNT("orders/products/incrementProductAmount.sql"),
+    LOCK_AVAILABLE_PRODUCTS("orders/products/lockAvailableProducts.sql"),
+    LOCK_ORDER_LINES("orders/products/lockOrderLines.sql"),
+    REMOVE_PRODUCT_FROM_ORDER("orders/products/removeProductFromOrder.sql"),
+    REMOVE_PRODUCTS_FROM_ORDER("orders/products/removeProductsFromOrder.sql"),
+    UPDATE_PRODUCT("orders/products/updateProduct.sql"),
+    GET_RESERVED_ORDER_NUMBER_BOUND("orders/sequence/getReservedOrderNumberBound.sql"),
+    RESERVE_ORDER_NUMBERS("orders/sequence/reserveOrderNumbers.sql"),
+    ADD_HISTORY_ORDER_TREE_NODE("statistic/addHistoryOrderTreeNode.sql"),
+    GET_HISTORY_BASE_FOR_ORDER("statistic/getHistoryBaseForOrder.sql"),
+    GET_HISTORY_PAGE_FOR_ORDER("statistic/getHistoryPageForOrder.st", "fromVersion", "toVersion"),
+    GET_HISTORY_TREE_FOR_ORDER("statistic/getHistoryTreeForOrder.sql"),
+    GET_LATEST_HISTORY_NODE("statistic/getLatestHistoryNode.sql"),
+    GET_UNCOMPACTED_HISTORY_ORDERS("statistic/getUncompactedHistoryOrders.sql"),
+    LOCK_HISTORY_HEADS("statistic/lockHistoryHeads.sql"),
+    MARK_HISTORY_COMPACTED("statistic/markHistoryCompacted.sql"),
+    UPDATE_HISTORY_NODE_STATE("statistic/updateHistoryNodeState.sql"),
+    ACQUIRE_HISTORY_OUTBOX_RELAY_LOCK("statistic/outbox/acquireHistoryOutboxRelayLock.sql"),
+    ADD_HISTORY_OUTBOX_RECORD("statistic/outbox/addHistoryOutboxRecord.sql"),
+    DELETE_HISTORY_OUTBOX_RECORDS("statistic/outbox/deleteHistoryOutboxRecords.sql"),
+    GET_HISTORY_OUTBOX_RECORDS("statistic/outbox/getHistoryOutboxRecords.sql"),
+    RELEASE_HISTORY_OUTBOX_RELAY_LOCK("statistic/outbox/releaseHistoryOutboxRelayLock.sql"),
+    DELETE_CUSTOMER_BY_ID("users/deleteCustomerById.sql"),
+    GET_CUSTOMER_BY_ID("users/getCustomerById.sql"),
+    SAVE_CUSTOMER("users/saveCustomer.sql"),
+    SAVE_USER("users/saveUser.sql"),
+    UPDATE_CUSTOMER("users/updateCustomer.sql"),
+    UPDATE_USER("users/updateUser.sql"),
+    DELETE_EXPIRED_REVOKED_TOKENS("users/tokens/deleteExpiredRevokedTokens.sql"),
+    GET_REVOKED_TOKENS("users/tokens/getRevokedTokens.sql"),
+    SAVE_REVOKED_TOKEN("users/tokens/saveRevokedToken.sql");
+
+    private static final String TEMPLATE_EXTENSION = ".st";
+
+    /**
+     * Path relative to classpath:/sql/
+     */
+    private final String location;
+    private final List<String> templateArguments;
+
+    SQLScript(String location, String... templateArguments) {
+        this.location = location;
+        this.templateArguments = List.of(templateArguments);
+    }
+
+    public boolean isTemplate() {
+        return location.endsWith(TEMPLATE_EXTENSION);
+    }
+}
@@ -0,0 +1,88 @@
+package spring.application.tree.data.utility.loaders;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.stringtemplate.v4.ST;
+import org.stringtemplate.v4.STGroup;
+import org.stringtemplate.v4.compiler.STException;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+public class SQLScriptRegistry {
+    private static final String SQL_ROOT = "/sql/";
+    private static final String[] SQL_LOCATION_PATTERNS = {"classpath*:sql/**/*.sql", "classpath*:sql/**/*.st"};
+    /**
+     * Location relative to classpath:/sql/ -> Script text
+     */
+    private final Map<String, String> scripts;
+    private final Map<SQLScript, String> registeredScripts;
+    private final STGroup templates = new STGroup();
+    /**
+     * Template name with enabled arguments -> Rendered script
+     */
+    private final Map<String, String> renderedTemplates = new ConcurrentHashMap<>();
+
+    public SQLScriptRegistry() throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        Map<String, String> loadedScripts = new TreeMap<>();
+        for (String pattern : SQL_LOCATION_PATTERNS) {
+            for (Resource resource : resolver.getResources(pattern)) {
+                String url = resource.getURL().toString();
+                loadedScripts.put(url.substring(url.lastIndexOf(SQL_ROOT) + SQL_ROOT.length()), PropertyResourceLoader.getSQLScript(resource));
+            }
+        }
+        Map<SQLScript, String> resolvedScripts = new EnumMap<>(SQLScript.class);
+        for (SQLScript script : SQLScript.values()) {
+            String text = loadedScripts.get(script.getLocation());
+            if (text == null) {
+                throw new IllegalStateException(String.format("SQL script %s is missing: classpath:%s%s", script, SQL_ROOT, script.getLocation()));
+            }
+            if (script.isTemplate()) {
+                try {
+                    templates.defineTemplate(script.name(), String.join(",", script.getTemplateArguments()), text);
+                    templates.getInstanceOf(script.name());
+                } catch (STException e) {
+                    throw new IllegalStateException(String.format("SQL template %s can not be compiled: %s", script, script.getLocation()), e);
+                }
+            }
+            resolvedScripts.put(script, text);
+        }
+        this.scripts = Collections.unmodifiableMap(loadedScripts);
+        this.registeredScripts = Collections.unmodifiableMap(resolvedScripts);
+        log.debug("Loaded {} SQL scripts, {} registered", scripts.size(), registeredScripts.size());
+    }
+
+    public String getScript(SQLScript script) {
+        return registeredScripts.get(script);
+    }
+
+    public ST getTemplate(SQLScript script) {
+        if (!script.isTemplate()) {
+            throw new IllegalArgumentException(String.format("SQL script %s is not a template", script));
+        }
+        return templates.getInstanceOf(script.name());
+    }
+
+    /**
+     * Renders a template whose arguments are used only as presence flags, values are expected to be bound as named parameters
+     */
+    public String renderTemplate(SQLScript script, Collection<String> enabledArguments) {
+        Set<String> arguments = new TreeSet<>(enabledArguments);
+        arguments.retainAll(script.getTemplateArguments());
+        return renderedTemplates.computeIfAbsent(script.name() + arguments, key -> {
+            ST template = getTemplate(script);
+            arguments.forEach(argument -> template.add(argument, true));
+            return template.render();
+        });
+    }
+
+    public Map<String, String> getScripts() {
+        return scripts;
+    }
+}
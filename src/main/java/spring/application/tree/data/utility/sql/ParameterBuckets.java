@@ -0,0 +1,39 @@
+package spring.application.tree.data.utility.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ParameterBuckets {
+    private static final int[] IN_LIST_BUCKETS = {1, 4, 16, 64};
+    private static final int LARGEST_BUCKET = IN_LIST_BUCKETS[IN_LIST_BUCKETS.length - 1];
+
+    /**
+     * Pads IN-list values up to the nearest bucket size by repeating the last value,
+     * so that the expanded statement text is shared by all lists of the same bucket
+     */
+    public static <T> List<T> bucket(List<T> values) {
+        if (values == null || values.isEmpty()) {
+            return values;
+        }
+        int size = bucketSize(values.size());
+        if (size == values.size()) {
+            return values;
+        }
+        List<T> padded = new ArrayList<>(size);
+        padded.addAll(values);
+        T last = values.get(values.size() - 1);
+        while (padded.size() < size) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    public static int bucketSize(int size) {
+        for (int bucket : IN_LIST_BUCKETS) {
+            if (size <= bucket) {
+                return bucket;
+            }
+        }
+        return (size + LARGEST_BUCKET - 1) / LARGEST_BUCKET * LARGEST_BUCKET;
+    }
+}
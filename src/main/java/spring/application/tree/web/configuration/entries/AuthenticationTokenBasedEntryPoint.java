@@ -1,12 +1,13 @@
 package spring.application.tree.web.configuration.entries;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.context.annotation.Profile;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
+import spring.application.tree.data.utility.json.JsonCodec;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -15,17 +16,19 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Component
+@RequiredArgsConstructor
 public class AuthenticationTokenBasedEntryPoint implements AuthenticationEntryPoint {
+    private final JsonCodec jsonCodec;
+
     @Override
     public void commence(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, AuthenticationException authException) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
         Map<String, Object> responseBodyMap = new HashMap<>();
         responseBodyMap.put("error", true);
         responseBodyMap.put("authenticated", false);
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
         response.setStatus(HttpStatus.UNAUTHORIZED.value());
-        response.getWriter().write(mapper.writeValueAsString(responseBodyMap));
+        response.getWriter().write(jsonCodec.writeResponseBody(responseBodyMap));
         response.getWriter().flush();
     }
 }
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import spring.application.tree.data.users.security.UserDetailsImplementationService;
 import spring.application.tree.data.users.security.token.AuthorizationTokenUtility;
+import spring.application.tree.data.users.security.token.AuthorizedToken;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -31,10 +32,10 @@ public class AuthorizationTokenRequestFilter extends OncePerRequestFilter {
         if (authorizationHeaderValue != null && authorizationHeaderValue.startsWith("Bearer ")) {
             String authorizationToken = authorizationHeaderValue.substring(7);
             try {
-                String username = authorizationTokenUtility.getUsernameFromToken(authorizationToken);
-                if (!username.isEmpty() && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsImplementationService.loadUserByUsername(username);
-                    if (authorizationTokenUtility.validateToken(authorizationToken, userDetails, request)) {
+                if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                    AuthorizedToken authorizedToken = authorizationTokenUtility.authorizeToken(authorizationToken, userDetailsImplementationService::loadUserByUsername);
+                    if (authorizedToken != null && authorizedToken.isBoundTo(request)) {
+                        UserDetails userDetails = authorizedToken.getUserDetails();
                         UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
                                 new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                         usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
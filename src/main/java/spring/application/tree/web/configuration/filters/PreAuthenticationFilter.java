@@ -1,11 +1,12 @@
 package spring.application.tree.web.configuration.filters;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.GenericFilterBean;
+import spring.application.tree.data.utility.json.JsonCodec;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -17,21 +18,23 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
+@RequiredArgsConstructor
 public class PreAuthenticationFilter extends GenericFilterBean {
+    private final JsonCodec jsonCodec;
+
     @Override
     public void doFilter(@NonNull ServletRequest servletRequest, @NonNull ServletResponse servletResponse, @NonNull FilterChain filterChain) throws IOException, ServletException {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         HttpServletRequest request = (HttpServletRequest) servletRequest;
         if (authentication != null && request.getRequestURI().equals("/login")) {
             HttpServletResponse response = (HttpServletResponse) servletResponse;
-            ObjectMapper jacksonMapper = new ObjectMapper();
             Map<String, Object> responseBodyMap = new HashMap<>();
             responseBodyMap.put("authenticated", true);
             responseBodyMap.put("exception", "You are already logged in");
             response.setContentType("application/json");
             response.setCharacterEncoding("UTF-8");
             response.setStatus(HttpStatus.CONFLICT.value());
-            response.getWriter().write(jacksonMapper.writeValueAsString(responseBodyMap));
+            response.getWriter().write(jsonCodec.writeResponseBody(responseBodyMap));
             response.getWriter().flush();
         } else {
             filterChain.doFilter(servletRequest, servletResponse);
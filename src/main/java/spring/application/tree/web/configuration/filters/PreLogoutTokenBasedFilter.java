@@ -1,6 +1,5 @@
 package spring.application.tree.web.configuration.filters;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
@@ -10,6 +9,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.GenericFilterBean;
 import spring.application.tree.data.users.security.UserDetailsImplementationService;
 import spring.application.tree.data.users.security.token.AuthorizationTokenUtility;
+import spring.application.tree.data.utility.json.JsonCodec;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -26,6 +26,7 @@ import java.util.Map;
 public class PreLogoutTokenBasedFilter extends GenericFilterBean {
     private final UserDetailsImplementationService userDetailsImplementationService;
     private final AuthorizationTokenUtility authorizationTokenUtility;
+    private final JsonCodec jsonCodec;
 
     @Override
     public void doFilter(@NonNull ServletRequest servletRequest, @NonNull ServletResponse servletResponse, @NonNull FilterChain filterChain) throws IOException, ServletException {
@@ -38,26 +39,24 @@ public class PreLogoutTokenBasedFilter extends GenericFilterBean {
                 UserDetails userDetails = userDetailsImplementationService.loadUserByUsername(username);
                 if (authorizationToken.isEmpty() || !authorizationTokenUtility.validateToken(authorizationToken, userDetails, request)) {
                     HttpServletResponse response = (HttpServletResponse) servletResponse;
-                    ObjectMapper jacksonMapper = new ObjectMapper();
                     Map<String, Object> responseBodyMap = new HashMap<>();
                     responseBodyMap.put("authenticated", false);
                     responseBodyMap.put("exception", "You are not authenticated");
                     response.setContentType("application/json");
                     response.setCharacterEncoding("UTF-8");
                     response.setStatus(HttpStatus.FORBIDDEN.value());
-                    response.getWriter().write(jacksonMapper.writeValueAsString(responseBodyMap));
+                    response.getWriter().write(jsonCodec.writeResponseBody(responseBodyMap));
                     response.getWriter().flush();
                 }
             } else {
                 HttpServletResponse response = (HttpServletResponse) servletResponse;
-                ObjectMapper jacksonMapper = new ObjectMapper();
                 Map<String, Object> responseBodyMap = new HashMap<>();
                 responseBodyMap.put("authenticated", false);
                 responseBodyMap.put("exception", "You are not authenticated");
                 response.setContentType("application/json");
                 response.setCharacterEncoding("UTF-8");
                 response.setStatus(HttpStatus.FORBIDDEN.value());
-                response.getWriter().write(jacksonMapper.writeValueAsString(responseBodyMap));
+                response.getWriter().write(jsonCodec.writeResponseBody(responseBodyMap));
                 response.getWriter().flush();
             }
         }
@@ -1,11 +1,12 @@
 package spring.application.tree.web.configuration.handlers;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.authentication.AuthenticationFailureHandler;
 import org.springframework.stereotype.Component;
+import spring.application.tree.data.utility.json.JsonCodec;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -14,17 +15,19 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Component
+@RequiredArgsConstructor
 public class AuthenticationFailureSecurityHandler implements AuthenticationFailureHandler {
+    private final JsonCodec jsonCodec;
+
     @Override
     public void onAuthenticationFailure(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, AuthenticationException exception) throws IOException {
-        ObjectMapper jacksonMapper = new ObjectMapper();
         Map<String, Object> responseBodyMap = new HashMap<>();
         responseBodyMap.put("authenticated", false);
         responseBodyMap.put("exception", exception.getMessage());
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
         response.setStatus(HttpStatus.OK.value());
-        response.getWriter().write(jacksonMapper.writeValueAsString(responseBodyMap));
+        response.getWriter().write(jsonCodec.writeResponseBody(responseBodyMap));
         response.getWriter().flush();
     }
 }
@@ -1,6 +1,5 @@
 package spring.application.tree.web.configuration.handlers;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
@@ -14,6 +13,7 @@ import spring.application.tree.data.exceptions.InvalidAttributesException;
 import spring.application.tree.data.users.security.UserDetailsImplementationService;
 import spring.application.tree.data.users.security.token.AuthorizationTokenUtility;
 import spring.application.tree.data.users.service.UserService;
+import spring.application.tree.data.utility.json.JsonCodec;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -28,6 +28,7 @@ public class AuthenticationLogoutTokenBasedSecurityHandler implements LogoutSucc
     private final UserDetailsImplementationService userDetailsImplementationService;
     private final AuthorizationTokenUtility authorizationTokenUtility;
     private final UserService userService;
+    private final JsonCodec jsonCodec;
 
     @Override
     public void onLogoutSuccess(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, Authentication authentication) throws IOException {
@@ -39,7 +40,6 @@ public class AuthenticationLogoutTokenBasedSecurityHandler implements LogoutSucc
                 UserDetails userDetails = userDetailsImplementationService.loadUserByUsername(username);
                 if (!authorizationToken.isEmpty() && authorizationTokenUtility.validateToken(authorizationToken, userDetails, request)) {
                     authorizationTokenUtility.blacklistToken(authorizationToken);
-                    ObjectMapper jacksonMapper = new ObjectMapper();
                     Map<String, Object> responseBodyMap = new HashMap<>();
                     responseBodyMap.put("logout", true);
                     if (authentication != null) {
@@ -51,7 +51,7 @@ public class AuthenticationLogoutTokenBasedSecurityHandler implements LogoutSucc
                     response.setContentType("application/json");
                     response.setCharacterEncoding("UTF-8");
                     response.setStatus(HttpStatus.OK.value());
-                    response.getWriter().write(jacksonMapper.writeValueAsString(responseBodyMap));
+                    response.getWriter().write(jsonCodec.writeResponseBody(responseBodyMap));
                     response.getWriter().flush();
                     try {
                         userService.updateUserLogoutTime(username);
@@ -1,12 +1,13 @@
 package spring.application.tree.web.configuration.handlers;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
+import spring.application.tree.data.utility.json.JsonCodec;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -15,10 +16,12 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Component
+@RequiredArgsConstructor
 public class AuthenticationSuccessSecurityHandler implements AuthenticationSuccessHandler {
+    private final JsonCodec jsonCodec;
+
     @Override
     public void onAuthenticationSuccess(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, Authentication authentication) throws IOException {
-        ObjectMapper jacksonMapper = new ObjectMapper();
         Map<String, Object> responseBodyMap = new HashMap<>();
         responseBodyMap.put("authenticated", true);
         if (authentication != null) {
@@ -31,7 +34,7 @@ public class AuthenticationSuccessSecurityHandler implements AuthenticationSucce
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
         response.setStatus(HttpStatus.OK.value());
-        response.getWriter().write(jacksonMapper.writeValueAsString(responseBodyMap));
+        response.getWriter().write(jsonCodec.writeResponseBody(responseBodyMap));
         response.getWriter().flush();
     }
 }
@@ -1,17 +1,24 @@
 package spring.application.tree.web.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import spring.application.tree.data.exceptions.InvalidAttributesException;
 import spring.application.tree.data.exceptions.NotAllowedException;
 import spring.application.tree.data.orders.attributes.OrderStatus;
 import spring.application.tree.data.orders.models.OrderModel;
 import spring.application.tree.data.orders.models.ProductModel;
+import spring.application.tree.data.orders.repository.OrderStream;
 import spring.application.tree.data.orders.service.OrderService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigInteger;
 import java.util.Date;
 import java.util.List;
@@ -21,19 +28,32 @@ import java.util.Map;
 @RequiredArgsConstructor
 @RequestMapping("/order")
 public class OrderController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     private final OrderService orderService;
+    private final ObjectMapper objectMapper;
 
     @PreAuthorize("hasAnyAuthority('customer::permission', 'admin::permission', 'salesman::permission')")
     @GetMapping("/view/customer")
-    public ResponseEntity<Object> viewCustomerOrders(@RequestParam(required = false, value = "id") Integer id) throws InvalidAttributesException, NotAllowedException {
+    public ResponseEntity<Object> viewCustomerOrders(@RequestParam(required = false, value = "id") Integer id,
+                                                     @RequestParam(required = false, value = "cursor") String cursor,
+                                                     @RequestParam(required = false, value = "limit") Integer limit,
+                                                     @RequestParam(required = false, value = "stream", defaultValue = "false") boolean stream) throws InvalidAttributesException, NotAllowedException {
+        if (stream) {
+            return streamOrders(orderService.streamOrdersForCustomer(id));
+        }
+        if (cursor != null || limit != null) {
+            return ResponseEntity.ok(orderService.getOrdersForCustomer(id, cursor, limit == null ? DEFAULT_PAGE_SIZE : limit));
+        }
         List<OrderModel> customerOrders = orderService.getOrdersForCustomer(id);
         return ResponseEntity.ok(customerOrders);
     }
 
     @PreAuthorize("hasAnyAuthority('admin::permission')")
     @GetMapping("/view/operators")
-    public ResponseEntity<Object> viewOrdersAssignedToOperators(@RequestParam("id") List<Integer> id) throws InvalidAttributesException {
-        Map<Integer, List<OrderModel>> operatorToOrder = orderService.getOperatorToOrders(id);
+    public ResponseEntity<Object> viewOrdersAssignedToOperators(@RequestParam("id") List<Integer> id,
+                                                                @RequestParam(required = false, value = "limit") Integer limit) throws InvalidAttributesException {
+        Map<Integer, List<OrderModel>> operatorToOrder = orderService.getOperatorToOrders(id, limit);
         return ResponseEntity.ok(operatorToOrder);
     }
 
@@ -55,14 +75,31 @@ public class OrderController {
                                                        @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") Date bookingTimeTop,
                                                        @RequestParam(required = false, value = "paid") Boolean paid,
                                                        @RequestParam(required = false, value = "cost_from") Double costBottom,
-                                                       @RequestParam(required = false, value = "cost_to") Double costTop) throws InvalidAttributesException {
+                                                       @RequestParam(required = false, value = "cost_to") Double costTop,
+                                                       @RequestParam(required = false, value = "cursor") String cursor,
+                                                       @RequestParam(required = false, value = "limit") Integer limit,
+                                                       @RequestParam(required = false, value = "stream", defaultValue = "false") boolean stream) throws InvalidAttributesException {
+        if (stream) {
+            return streamOrders(orderService.streamOrdersByCriteria(productIds, orderNumbers, orderStatuses, bookingTimeBottom, bookingTimeTop, paid, costBottom, costTop));
+        }
+        if (cursor != null || limit != null) {
+            return ResponseEntity.ok(orderService.getOrdersByCriteria(productIds, orderNumbers, orderStatuses, bookingTimeBottom, bookingTimeTop, paid, costBottom, costTop, cursor, limit == null ? DEFAULT_PAGE_SIZE : limit));
+        }
         List<OrderModel> orders = orderService.getOrdersByCriteria(productIds, orderNumbers, orderStatuses, bookingTimeBottom, bookingTimeTop, paid, costBottom, costTop);
         return ResponseEntity.ok(orders);
     }
 
     @PreAuthorize("hasAnyAuthority('admin::permission', 'salesman::permission')")
     @GetMapping("/view/available")
-    public ResponseEntity<Object> viewAvailableOrders() {
+    public ResponseEntity<Object> viewAvailableOrders(@RequestParam(required = false, value = "cursor") String cursor,
+                                                      @RequestParam(required = false, value = "limit") Integer limit,
+                                                      @RequestParam(required = false, value = "stream", defaultValue = "false") boolean stream) throws InvalidAttributesException {
+        if (stream) {
+            return streamOrders(orderService.streamAvailableOrders());
+        }
+        if (cursor != null || limit != null) {
+            return ResponseEntity.ok(orderService.getAvailableOrders(cursor, limit == null ? DEFAULT_PAGE_SIZE : limit));
+        }
         List<OrderModel> orders = orderService.getAvailableOrders();
         return ResponseEntity.ok(orders);
     }
@@ -147,4 +184,24 @@ public class OrderController {
         orderService.removeOrdersFromOperator(orderIds, operatorId);
         return ResponseEntity.ok().build();
     }
+
+    private ResponseEntity<Object> streamOrders(OrderStream orderStream) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                orderStream.forEach(orders -> {
+                    try {
+                        for (OrderModel order : orders) {
+                            generator.writeObject(order);
+                        }
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 }
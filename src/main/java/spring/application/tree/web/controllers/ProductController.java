@@ -1,11 +1,16 @@
 package spring.application.tree.web.controllers;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import spring.application.tree.data.exceptions.InvalidAttributesException;
 import spring.application.tree.data.exceptions.NotAllowedException;
+import spring.application.tree.data.orders.models.ProductCatalogSnapshot;
 import spring.application.tree.data.orders.models.ProductModel;
 import spring.application.tree.data.orders.service.OrderService;
 
@@ -18,9 +23,16 @@ public class ProductController {
     private final OrderService orderService;
 
     @GetMapping("/view/all")
-    public ResponseEntity<Object> getProducts() {
-        List<ProductModel> products = orderService.getProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<Object> getProducts(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ProductCatalogSnapshot catalog = orderService.getProductCatalog();
+        if (catalog.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(catalog.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(catalog.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalog.getBody());
     }
 
     @PreAuthorize("hasAnyAuthority('customer::permission', 'admin::permission', 'salesman::permission')")
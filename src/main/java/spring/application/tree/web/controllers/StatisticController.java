@@ -0,0 +1,38 @@
+package spring.application.tree.web.controllers;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import spring.application.tree.data.exceptions.InvalidAttributesException;
+import spring.application.tree.data.statistic.models.OrderHistoryElement;
+import spring.application.tree.data.statistic.models.OrderHistoryPageModel;
+import spring.application.tree.data.statistic.service.StatisticService;
+
+import java.math.BigInteger;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/statistic")
+public class StatisticController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    private final StatisticService statisticService;
+
+    @PreAuthorize("hasAnyAuthority('admin::permission', 'salesman::permission')")
+    @GetMapping("/history/order")
+    public ResponseEntity<Object> viewOrderHistory(@RequestParam("order_number") BigInteger orderNumber,
+                                                   @RequestParam(required = false, value = "from_version") Long fromVersion,
+                                                   @RequestParam(required = false, value = "to_version") Long toVersion,
+                                                   @RequestParam(required = false, value = "limit") Integer limit) throws InvalidAttributesException {
+        OrderHistoryPageModel page = statisticService.getHistoryPageForOrder(orderNumber, fromVersion, toVersion, limit == null ? DEFAULT_PAGE_SIZE : limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @PreAuthorize("hasAnyAuthority('admin::permission', 'salesman::permission')")
+    @GetMapping("/history/order/latest")
+    public ResponseEntity<Object> viewLatestOrderHistory(@RequestParam("order_number") BigInteger orderNumber) throws InvalidAttributesException {
+        OrderHistoryElement latest = statisticService.getLatestHistoryNode(orderNumber);
+        return ResponseEntity.ok(latest);
+    }
+}
@@ -0,0 +1,15 @@
+package spring.application.tree.web.webscoket.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Change published inside a transaction, delivered to the destination topic once the transaction commits
+ */
+@Data
+@AllArgsConstructor
+public class DomainEvent {
+    private Endpoints destination;
+    private WebSocketEvent event;
+    private Object payload;
+}
@@ -0,0 +1,128 @@
+package spring.application.tree.web.webscoket.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.messaging.MessagingException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import spring.application.tree.web.webscoket.models.DomainEvent;
+import spring.application.tree.web.webscoket.models.WebSocketMessage;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects committed domain events for one batch interval and sends them as one frame per destination,
+ * events of rolled back transactions are never delivered
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@PropertySource("classpath:websocket.properties")
+public class WebSocketFanOut {
+    private static final long SHUTDOWN_TIMEOUT = 10_000;
+    private static final long IDLE_POLL_INTERVAL = 1_000;
+    private static final int QUEUE_CAPACITY = 10_000;
+
+    private final WebSocketService webSocketService;
+    private final MeterRegistry meterRegistry;
+    @Value("${websocket.batch.interval}")
+    private long batchInterval;
+    @Value("${websocket.batch.size}")
+    private int batchSize;
+    private BlockingQueue<DomainEvent> queue;
+    private Counter publishedEvents;
+    private Counter sentFrames;
+    private Counter droppedEvents;
+    private Thread fanOutThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        publishedEvents = Counter.builder("websocket.fanout.events").register(meterRegistry);
+        sentFrames = Counter.builder("websocket.fanout.frames").register(meterRegistry);
+        droppedEvents = Counter.builder("websocket.fanout.dropped").register(meterRegistry);
+        running = true;
+        fanOutThread = new Thread(this::run, "websocket-fan-out");
+        fanOutThread.setDaemon(true);
+        fanOutThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        fanOutThread.join(SHUTDOWN_TIMEOUT);
+        List<DomainEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        send(remaining);
+    }
+
+    /**
+     * Events published outside of a transaction are queued right away
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDomainEvent(DomainEvent event) {
+        publishedEvents.increment();
+        if (!queue.offer(event)) {
+            droppedEvents.increment();
+            log.warn("WebSocket fan-out queue is full, {} event for {} is dropped", event.getEvent(), event.getDestination());
+        }
+    }
+
+    private void run() {
+        List<DomainEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                DomainEvent first = queue.poll(IDLE_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                Thread.sleep(batchInterval);
+                batch.add(first);
+                queue.drainTo(batch);
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                droppedEvents.increment(batch.size());
+                log.error("WebSocket fan-out of {} events failed: {}", batch.size(), e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<DomainEvent> events) {
+        Map<String, List<WebSocketMessage>> frames = new LinkedHashMap<>();
+        for (DomainEvent event : events) {
+            frames.computeIfAbsent(event.getDestination().getEndpointPrefix(), destination -> new ArrayList<>())
+                  .add(new WebSocketMessage(event.getPayload(), event.getEvent()));
+        }
+        for (Map.Entry<String, List<WebSocketMessage>> frame : frames.entrySet()) {
+            List<WebSocketMessage> messages = frame.getValue();
+            for (int from = 0; from < messages.size(); from += batchSize) {
+                try {
+                    webSocketService.sendMessages(messages.subList(from, Math.min(from + batchSize, messages.size())), frame.getKey());
+                    sentFrames.increment();
+                } catch (JsonProcessingException | MessagingException e) {
+                    log.error("WebSocket frame for {} could not be sent: {}", frame.getKey(), e.getMessage());
+                }
+            }
+        }
+    }
+}
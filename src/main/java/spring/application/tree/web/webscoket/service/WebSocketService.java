@@ -1,18 +1,18 @@
 package spring.application.tree.web.webscoket.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import spring.application.tree.data.utility.json.JsonCodec;
 import spring.application.tree.web.webscoket.models.WebSocketEvent;
 import spring.application.tree.web.webscoket.models.WebSocketMessage;
 
 import javax.annotation.PostConstruct;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +22,7 @@ public class WebSocketService {
     @Value("${websocket.timeout}")
     private String timeout;
     private final SimpMessagingTemplate messagingTemplate;
+    private final JsonCodec jsonCodec;
     @PostConstruct
     private void setup() {
         log.debug("Timeout for websocket message sending has been set to '{}'", timeout);
@@ -34,10 +35,14 @@ public class WebSocketService {
     }
 
     public void sendMessage(Object payload, String destination, WebSocketEvent event) throws JsonProcessingException {
-        if (!(payload instanceof WebSocketMessage)) {
-            payload = new WebSocketMessage(payload, event);
-        }
-        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
-        sendMessage(mapper.writeValueAsString(payload), destination);
+        WebSocketMessage message = payload instanceof WebSocketMessage ? (WebSocketMessage) payload : new WebSocketMessage(payload, event);
+        sendMessage(jsonCodec.writeWebSocketMessage(message), destination);
+    }
+
+    /**
+     * Sends the messages as one frame, serialized once and shared by every subscriber of the destination
+     */
+    public void sendMessages(List<WebSocketMessage> messages, String destination) throws JsonProcessingException {
+        sendMessage(jsonCodec.writeWebSocketMessages(messages), destination);
     }
 }
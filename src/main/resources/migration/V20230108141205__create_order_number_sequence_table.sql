@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS order_number_sequence(
+    name VARCHAR(64) PRIMARY KEY NOT NULL,
+    next_value INT8 NOT NULL
+);
+INSERT INTO order_number_sequence(name, next_value)
+SELECT 'orders', GREATEST(100000001, COALESCE(MAX(CAST(numbers.order_number AS UNSIGNED)), 0) + 1)
+FROM (SELECT order_number FROM orders UNION ALL SELECT order_number FROM order_history) numbers;
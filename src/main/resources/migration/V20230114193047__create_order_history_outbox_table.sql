@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS order_history_outbox(
+    id INT8 PRIMARY KEY NOT NULL AUTO_INCREMENT,
+    order_number VARCHAR(255) NOT NULL,
+    state JSON,
+    event INT8 NOT NULL,
+    date TIMESTAMP NOT NULL
+)
@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS revoked_tokens(
+    id INT8 PRIMARY KEY NOT NULL AUTO_INCREMENT,
+    token_hash CHAR(43) NOT NULL UNIQUE,
+    expires_at TIMESTAMP NOT NULL,
+    INDEX revoked_tokens_expires_at_idx(expires_at)
+)
@@ -0,0 +1,9 @@
+ALTER TABLE products_to_order ADD COLUMN quantity INT4 NOT NULL DEFAULT 1 CHECK(quantity > 0);
+UPDATE products_to_order pto
+INNER JOIN (SELECT MIN(id) AS id, COUNT(*) AS quantity FROM products_to_order GROUP BY order_id, product_id HAVING COUNT(*) > 1) line ON pto.id = line.id
+SET pto.quantity = line.quantity;
+DELETE pto FROM products_to_order pto
+INNER JOIN (SELECT MIN(id) AS id, order_id, product_id FROM products_to_order GROUP BY order_id, product_id) line
+ON pto.order_id = line.order_id AND pto.product_id = line.product_id AND pto.id <> line.id;
+CREATE UNIQUE INDEX products_to_order_order_id_product_id_uidx ON products_to_order(order_id, product_id);
+DROP INDEX products_to_order_order_id_product_id_idx ON products_to_order;
\ No newline at end of file
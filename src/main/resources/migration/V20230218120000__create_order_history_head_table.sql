@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS order_history_head(
+    order_number VARCHAR(255) PRIMARY KEY NOT NULL,
+    record_id INT8 NOT NULL,
+    version INT8 NOT NULL
+);
+ALTER TABLE order_history ADD COLUMN version INT8;
+UPDATE order_history h
+INNER JOIN (SELECT id, ROW_NUMBER() OVER (PARTITION BY order_number ORDER BY id) AS version FROM order_history) numbered ON h.id = numbered.id
+SET h.version = numbered.version;
+INSERT INTO order_history_head(order_number, record_id, version)
+SELECT order_number, MAX(id), MAX(version) FROM order_history GROUP BY order_number;
+ALTER TABLE order_history MODIFY COLUMN version INT8 NOT NULL;
+CREATE UNIQUE INDEX order_history_order_number_version_uidx ON order_history(order_number, version);
\ No newline at end of file
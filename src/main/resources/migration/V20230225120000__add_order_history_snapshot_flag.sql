@@ -0,0 +1 @@
+ALTER TABLE order_history ADD COLUMN snapshot BOOLEAN NOT NULL DEFAULT TRUE;
\ No newline at end of file
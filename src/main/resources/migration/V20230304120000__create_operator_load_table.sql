@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS operator_load(
+    operator_id INT8 PRIMARY KEY NOT NULL,
+    orders_taken_number INT8 NOT NULL DEFAULT 0
+);
+INSERT INTO operator_load(operator_id, orders_taken_number)
+SELECT operator_id, COUNT(*) FROM orders_to_operator WHERE operator_id IS NOT NULL GROUP BY operator_id;
\ No newline at end of file
@@ -0,0 +1,3 @@
+ALTER TABLE order_history_head MODIFY COLUMN record_id INT8;
+INSERT IGNORE INTO order_history_head(order_number, record_id, version)
+SELECT order_number, NULL, 0 FROM orders;
\ No newline at end of file
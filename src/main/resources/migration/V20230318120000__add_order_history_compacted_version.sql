@@ -0,0 +1 @@
+ALTER TABLE order_history_head ADD COLUMN compacted_version INT8 NOT NULL DEFAULT 0;
\ No newline at end of file
@@ -0,0 +1 @@
+ALTER TABLE orders ADD COLUMN total_cost DOUBLE GENERATED ALWAYS AS (product_cost + delivery_cost) STORED;
\ No newline at end of file
@@ -0,0 +1,4 @@
+CREATE INDEX orders_customer_id_booking_time_idx ON orders(customer_id, booking_time, id);
+CREATE INDEX orders_booking_time_idx ON orders(booking_time, id);
+CREATE INDEX orders_paid_booking_time_idx ON orders(paid, booking_time, id);
+CREATE INDEX orders_order_status_booking_time_idx ON orders(order_status, booking_time);
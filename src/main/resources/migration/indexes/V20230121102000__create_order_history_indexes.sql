@@ -0,0 +1,2 @@
+CREATE INDEX order_history_order_number_date_idx ON order_history(order_number, date);
+CREATE INDEX order_history_date_idx ON order_history(date);
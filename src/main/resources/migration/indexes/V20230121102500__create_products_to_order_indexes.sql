@@ -0,0 +1,2 @@
+CREATE INDEX products_to_order_order_id_product_id_idx ON products_to_order(order_id, product_id);
+CREATE INDEX products_to_order_product_id_order_id_idx ON products_to_order(product_id, order_id);
@@ -0,0 +1 @@
+CREATE INDEX orders_to_operator_operator_id_order_id_idx ON orders_to_operator(operator_id, order_id);
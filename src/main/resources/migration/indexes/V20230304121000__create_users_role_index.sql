@@ -0,0 +1 @@
+CREATE INDEX users_role_id_idx ON users(role, id, username);
\ No newline at end of file
@@ -0,0 +1 @@
+CREATE INDEX orders_paid_total_cost_idx ON orders(paid, total_cost);
\ No newline at end of file
@@ -0,0 +1,10 @@
+DROP PROCEDURE IF EXISTS assign_product;
+CREATE PROCEDURE assign_product(IN order_id_var INT8, IN product_id_var INT8, IN quantity_var INT4)
+BEGIN
+    IF (SELECT COUNT(*) FROM products WHERE products.id = product_id_var AND products.available = 1 AND products.amount >= quantity_var) > 0
+    THEN
+        INSERT INTO products_to_order(product_id, order_id, quantity) VALUES(product_id_var, order_id_var, quantity_var)
+        ON DUPLICATE KEY UPDATE quantity = quantity + quantity_var;
+        UPDATE products SET amount = amount - quantity_var WHERE id = product_id_var;
+    END IF;
+END;
\ No newline at end of file
@@ -0,0 +1,7 @@
+DROP PROCEDURE IF EXISTS delete_order;
+CREATE PROCEDURE delete_order(IN order_id_var INT8, IN order_number_var INT8)
+BEGIN
+    INSERT INTO order_history(order_number, state, event) VALUES(order_number_var, null, 3);
+    DELETE FROM products_to_order WHERE products_to_order.order_id = order_id_var;
+    DELETE FROM orders_to_operator WHERE order_id = order_id_var;
+END;
\ No newline at end of file
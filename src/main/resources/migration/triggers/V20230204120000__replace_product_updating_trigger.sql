@@ -0,0 +1,11 @@
+DROP TRIGGER IF EXISTS update_trigger;
+CREATE TRIGGER update_trigger
+BEFORE UPDATE ON products FOR EACH ROW
+BEGIN
+    IF NEW.amount = 0 THEN
+        SET NEW.available = 0;
+    END IF;
+    IF NEW.amount > 0 THEN
+        SET NEW.available = 1;
+    END IF;
+END;
\ No newline at end of file
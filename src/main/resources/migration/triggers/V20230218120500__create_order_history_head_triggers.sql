@@ -0,0 +1,17 @@
+DROP TRIGGER IF EXISTS order_history_link;
+CREATE TRIGGER order_history_link
+BEFORE INSERT ON order_history FOR EACH ROW
+BEGIN
+    DECLARE head_record_id_var INT8;
+    DECLARE head_version_var INT8 DEFAULT 0;
+    SELECT record_id, version INTO head_record_id_var, head_version_var FROM order_history_head WHERE order_number = NEW.order_number FOR UPDATE;
+    SET NEW.previous_record = head_record_id_var;
+    SET NEW.version = head_version_var + 1;
+END;
+DROP TRIGGER IF EXISTS order_history_advance_head;
+CREATE TRIGGER order_history_advance_head
+AFTER INSERT ON order_history FOR EACH ROW
+BEGIN
+    INSERT INTO order_history_head(order_number, record_id, version) VALUES(NEW.order_number, NEW.id, NEW.version)
+    ON DUPLICATE KEY UPDATE record_id = NEW.id, version = NEW.version;
+END;
\ No newline at end of file
@@ -0,0 +1,31 @@
+DROP TRIGGER IF EXISTS operator_load_on_assign;
+CREATE TRIGGER operator_load_on_assign
+AFTER INSERT ON orders_to_operator FOR EACH ROW
+BEGIN
+    IF NEW.operator_id IS NOT NULL THEN
+        INSERT INTO operator_load(operator_id, orders_taken_number) VALUES(NEW.operator_id, 1)
+        ON DUPLICATE KEY UPDATE orders_taken_number = orders_taken_number + 1;
+    END IF;
+END;
+DROP TRIGGER IF EXISTS operator_load_on_reassign;
+CREATE TRIGGER operator_load_on_reassign
+AFTER UPDATE ON orders_to_operator FOR EACH ROW
+BEGIN
+    IF NOT (OLD.operator_id <=> NEW.operator_id) THEN
+        IF OLD.operator_id IS NOT NULL THEN
+            UPDATE operator_load SET orders_taken_number = orders_taken_number - 1 WHERE operator_id = OLD.operator_id;
+        END IF;
+        IF NEW.operator_id IS NOT NULL THEN
+            INSERT INTO operator_load(operator_id, orders_taken_number) VALUES(NEW.operator_id, 1)
+            ON DUPLICATE KEY UPDATE orders_taken_number = orders_taken_number + 1;
+        END IF;
+    END IF;
+END;
+DROP TRIGGER IF EXISTS operator_load_on_release;
+CREATE TRIGGER operator_load_on_release
+AFTER DELETE ON orders_to_operator FOR EACH ROW
+BEGIN
+    IF OLD.operator_id IS NOT NULL THEN
+        UPDATE operator_load SET orders_taken_number = orders_taken_number - 1 WHERE operator_id = OLD.operator_id;
+    END IF;
+END;
\ No newline at end of file
@@ -0,0 +1,7 @@
+DROP TRIGGER IF EXISTS order_history_seed_head;
+CREATE TRIGGER order_history_seed_head
+AFTER INSERT ON orders FOR EACH ROW
+BEGIN
+    INSERT INTO order_history_head(order_number, record_id, version) VALUES(NEW.order_number, NULL, 0)
+    ON DUPLICATE KEY UPDATE order_number = order_number;
+END;
\ No newline at end of file
@@ -0,0 +1 @@
+INSERT IGNORE INTO orders_to_operator(operator_id, order_id) VALUES(?, ?);
\ No newline at end of file
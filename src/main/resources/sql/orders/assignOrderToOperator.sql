@@ -1 +1 @@
-INSERT INTO orders_to_operator(operator_id, order_id) VALUES(?, ?) ON DUPLICATE KEY UPDATE operator_id = ?;
\ No newline at end of file
+INSERT INTO orders_to_operator(operator_id, order_id) VALUES(?, ?) ON DUPLICATE KEY UPDATE operator_id = VALUES(operator_id);
\ No newline at end of file
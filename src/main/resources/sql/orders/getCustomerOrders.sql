@@ -1,4 +0,0 @@
-SELECT o.id, o.customer_id, o.order_number, o.booking_time, o.delivery_address, o.delivery_cost, o.product_cost, o.paid, o.order_status
-FROM orders o
-WHERE o.customer_id = ?
-ORDER BY o.booking_time DESC;
\ No newline at end of file
@@ -1 +0,0 @@
-SELECT order_number FROM order_history ORDER BY date DESC LIMIT 1;
\ No newline at end of file
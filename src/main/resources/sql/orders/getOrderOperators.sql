@@ -0,0 +1,3 @@
+SELECT oto.order_id, oto.operator_id
+FROM orders_to_operator oto
+WHERE oto.order_id IN (:orderIds);
\ No newline at end of file
@@ -0,0 +1,7 @@
+SELECT o.id, o.customer_id, o.order_number, o.booking_time, o.delivery_address, o.delivery_cost, o.product_cost, o.paid, o.order_status,
+       pto.quantity, p.id AS product_id, p.name, p.price, p.amount, p.available, p.description
+FROM orders o
+LEFT JOIN products_to_order pto ON pto.order_id = o.id
+LEFT JOIN products p ON p.id = pto.product_id
+WHERE o.id = ?
+ORDER BY pto.product_id;
\ No newline at end of file
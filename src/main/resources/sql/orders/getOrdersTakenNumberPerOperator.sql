@@ -1,4 +1,5 @@
-SELECT u.id, u.username, (SELECT COUNT(*) FROM orders_to_operator WHERE operator_id = u.id) AS orders_taken_number
+SELECT u.id, u.username, COALESCE(ol.orders_taken_number, 0) AS orders_taken_number
 FROM users u
+LEFT JOIN operator_load ol ON ol.operator_id = u.id
 WHERE u.role = 1
 ORDER BY orders_taken_number ASC;
\ No newline at end of file
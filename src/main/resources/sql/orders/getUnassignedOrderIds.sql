@@ -0,0 +1,5 @@
+SELECT o.id
+FROM orders o
+WHERE NOT EXISTS (SELECT 1 FROM orders_to_operator oto WHERE oto.order_id = o.id)
+ORDER BY o.booking_time, o.id
+LIMIT ?;
\ No newline at end of file
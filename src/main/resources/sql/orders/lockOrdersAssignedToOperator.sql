@@ -0,0 +1,5 @@
+SELECT oto.order_id
+FROM orders_to_operator oto
+WHERE oto.operator_id = ?
+ORDER BY oto.order_id
+FOR UPDATE;
\ No newline at end of file
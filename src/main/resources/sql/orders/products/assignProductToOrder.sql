@@ -1 +1,2 @@
-CALL assign_product(?, ?)
\ No newline at end of file
+INSERT INTO products_to_order(order_id, product_id, quantity) VALUES(?, ?, ?)
+ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity);
\ No newline at end of file
@@ -0,0 +1 @@
+UPDATE products_to_order SET quantity = quantity - ? WHERE order_id = ? AND product_id = ? AND quantity > ?;
\ No newline at end of file
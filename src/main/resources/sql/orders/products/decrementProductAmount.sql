@@ -0,0 +1 @@
+UPDATE products SET amount = amount - ? WHERE id = ?;
\ No newline at end of file
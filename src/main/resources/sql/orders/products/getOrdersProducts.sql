@@ -0,0 +1,4 @@
+SELECT pto.order_id, pto.quantity, p.id, p.name, p.price, p.amount, p.available, p.description
+FROM products p
+INNER JOIN products_to_order pto ON p.id = pto.product_id
+WHERE pto.order_id IN (:orderIds);
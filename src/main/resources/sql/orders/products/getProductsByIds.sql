@@ -0,0 +1,3 @@
+SELECT p.id, p.name, p.price, p.amount, p.available, p.description
+FROM products p
+WHERE p.id IN (:productIds);
\ No newline at end of file
@@ -0,0 +1 @@
+SELECT p.id, p.amount FROM products p WHERE p.id IN (:productIds) AND p.available = 1 AND p.amount > 0 ORDER BY p.id FOR UPDATE;
\ No newline at end of file
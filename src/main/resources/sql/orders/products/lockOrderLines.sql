@@ -0,0 +1 @@
+SELECT pto.product_id, pto.quantity FROM products_to_order pto WHERE pto.order_id = ? ORDER BY pto.product_id FOR UPDATE;
\ No newline at end of file
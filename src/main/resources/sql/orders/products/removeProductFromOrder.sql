@@ -0,0 +1 @@
+DELETE FROM products_to_order WHERE order_id = ? AND product_id = ? AND quantity <= ?;
\ No newline at end of file
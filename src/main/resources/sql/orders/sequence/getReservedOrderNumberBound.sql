@@ -0,0 +1 @@
+SELECT LAST_INSERT_ID();
\ No newline at end of file
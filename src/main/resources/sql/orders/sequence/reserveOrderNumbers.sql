@@ -0,0 +1 @@
+UPDATE order_number_sequence SET next_value = LAST_INSERT_ID(next_value + ?) WHERE name = ?;
\ No newline at end of file
@@ -1,2 +1 @@
-INSERT INTO order_history(order_number, state, event, previous_record)
-VALUES(?, ?, ?, (SELECT id FROM (SELECT id FROM order_history WHERE order_number = ? ORDER BY date DESC LIMIT 1) AS order_count_data));
\ No newline at end of file
+INSERT INTO order_history(order_number, state, snapshot, event, date) VALUES(?, ?, ?, ?, ?);
\ No newline at end of file
@@ -0,0 +1,6 @@
+SELECT node.id, node.order_number, node.state, node.snapshot, node.event, node.previous_record, node.version, node.date
+FROM order_history node
+WHERE node.order_number = ?
+AND node.version < ?
+AND node.version >= (SELECT MAX(base.version) FROM order_history base WHERE base.order_number = ? AND base.version < ? AND base.snapshot = TRUE)
+ORDER BY node.version;
\ No newline at end of file
@@ -1,4 +1,4 @@
-SELECT node.id, node.order_number, node.state, node.event, node.previous_record, node.date
-FROM order_history
-WHERE order_number = ?
-ORDER BY node.date DESC;
\ No newline at end of file
+SELECT node.id, node.order_number, node.state, node.snapshot, node.event, node.previous_record, node.version, node.date
+FROM order_history node
+WHERE node.order_number = ?
+ORDER BY node.version DESC;
\ No newline at end of file
@@ -0,0 +1,4 @@
+SELECT node.id, node.order_number, node.state, node.snapshot, node.event, node.previous_record, node.version, node.date
+FROM order_history_head head
+INNER JOIN order_history node ON node.id = head.record_id
+WHERE head.order_number = ?;
\ No newline at end of file
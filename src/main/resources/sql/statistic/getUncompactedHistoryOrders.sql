@@ -0,0 +1,8 @@
+SELECT head.order_number
+FROM order_history_head head
+INNER JOIN order_history node ON node.id = head.record_id
+WHERE head.order_number > ?
+AND head.compacted_version < head.version
+AND node.date < ?
+ORDER BY head.order_number
+LIMIT ?;
\ No newline at end of file
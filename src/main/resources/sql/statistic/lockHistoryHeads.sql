@@ -0,0 +1,4 @@
+SELECT head.order_number, head.version
+FROM order_history_head head
+WHERE head.order_number IN (:orderNumbers)
+FOR UPDATE;
\ No newline at end of file
@@ -0,0 +1 @@
+UPDATE order_history_head SET compacted_version = ? WHERE order_number = ?;
\ No newline at end of file
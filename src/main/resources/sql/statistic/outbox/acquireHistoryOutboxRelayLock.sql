@@ -0,0 +1 @@
+SELECT GET_LOCK(?, 0);
\ No newline at end of file
@@ -0,0 +1 @@
+INSERT INTO order_history_outbox(order_number, state, event, date) VALUES(?, ?, ?, ?);
\ No newline at end of file
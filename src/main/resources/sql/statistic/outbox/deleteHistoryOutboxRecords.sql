@@ -0,0 +1 @@
+DELETE FROM order_history_outbox WHERE id IN (:ids);
\ No newline at end of file
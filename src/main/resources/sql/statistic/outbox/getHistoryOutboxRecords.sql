@@ -0,0 +1,5 @@
+SELECT id, order_number, state, event, date
+FROM order_history_outbox
+ORDER BY id
+LIMIT ?
+FOR UPDATE;
\ No newline at end of file
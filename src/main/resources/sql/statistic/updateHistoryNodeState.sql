@@ -0,0 +1 @@
+UPDATE order_history SET state = ?, snapshot = ? WHERE id = ?;
\ No newline at end of file
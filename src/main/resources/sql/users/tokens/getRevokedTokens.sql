@@ -0,0 +1,4 @@
+SELECT id, token_hash, expires_at
+FROM revoked_tokens
+WHERE id > ? AND expires_at > ?
+ORDER BY id;
\ No newline at end of file
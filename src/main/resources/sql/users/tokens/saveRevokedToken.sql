@@ -0,0 +1 @@
+INSERT IGNORE INTO revoked_tokens(token_hash, expires_at) VALUES(?, ?);
\ No newline at end of file
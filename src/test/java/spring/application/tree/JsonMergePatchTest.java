@@ -0,0 +1,66 @@
+package spring.application.tree;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import spring.application.tree.data.utility.json.JsonMergePatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JsonMergePatchTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void diffOfNestedObjectsAppliesBackToTarget() throws Exception {
+        JsonNode source = mapper.readTree("{\"id\":1,\"customer\":{\"name\":\"a\",\"address\":{\"city\":\"x\",\"street\":\"y\"}},\"paid\":false}");
+        JsonNode target = mapper.readTree("{\"id\":1,\"customer\":{\"name\":\"a\",\"address\":{\"city\":\"z\",\"street\":\"y\"}},\"paid\":true}");
+        JsonNode patch = JsonMergePatch.diff(source, target);
+        assertEquals(mapper.readTree("{\"customer\":{\"address\":{\"city\":\"z\"}},\"paid\":true}"), patch);
+        assertEquals(target, JsonMergePatch.apply(source, patch));
+    }
+
+    @Test
+    public void arraysAreReplacedAsWhole() throws Exception {
+        JsonNode source = mapper.readTree("{\"products\":[{\"id\":1,\"quantity\":1},{\"id\":2,\"quantity\":3}]}");
+        JsonNode target = mapper.readTree("{\"products\":[{\"id\":1,\"quantity\":2}]}");
+        JsonNode patch = JsonMergePatch.diff(source, target);
+        assertEquals(target, patch);
+        assertEquals(target, JsonMergePatch.apply(source, patch));
+    }
+
+    @Test
+    public void removedKeysBecomeNullMembers() throws Exception {
+        JsonNode source = mapper.readTree("{\"id\":1,\"deliveryAddress\":\"a\",\"customer\":{\"name\":\"a\",\"phone\":\"1\"}}");
+        JsonNode target = mapper.readTree("{\"id\":1,\"customer\":{\"name\":\"a\"}}");
+        JsonNode patch = JsonMergePatch.diff(source, target);
+        assertTrue(patch.get("deliveryAddress").isNull());
+        assertTrue(patch.get("customer").get("phone").isNull());
+        assertEquals(target, JsonMergePatch.apply(source, patch));
+    }
+
+    @Test
+    public void equalDocumentsGiveEmptyPatch() throws Exception {
+        JsonNode source = mapper.readTree("{\"id\":1,\"products\":[1,2]}");
+        JsonNode patch = JsonMergePatch.diff(source, source.deepCopy());
+        assertEquals(0, patch.size());
+        assertEquals(source, JsonMergePatch.apply(source, patch));
+    }
+
+    @Test
+    public void applyLeavesTargetUntouched() throws Exception {
+        JsonNode source = mapper.readTree("{\"id\":1,\"paid\":false}");
+        JsonNode copy = source.deepCopy();
+        JsonMergePatch.apply(source, mapper.readTree("{\"paid\":true,\"id\":null}"));
+        assertEquals(copy, source);
+    }
+
+    @Test
+    public void nullMembersAreStrippedRecursively() throws Exception {
+        JsonNode document = mapper.readTree("{\"id\":1,\"deliveryAddress\":null,\"customer\":{\"name\":null,\"phone\":\"1\"},\"products\":[null]}");
+        JsonNode stripped = JsonMergePatch.withoutNulls(document);
+        assertEquals(mapper.readTree("{\"id\":1,\"customer\":{\"phone\":\"1\"},\"products\":[null]}"), stripped);
+        assertFalse(document.get("deliveryAddress").isMissingNode());
+    }
+}
@@ -0,0 +1,69 @@
+package spring.application.tree;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import spring.application.tree.data.exceptions.InvalidAttributesException;
+import spring.application.tree.data.orders.models.OrderCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OrderCursorTest {
+    @Test
+    public void encodedCursorDecodesToSamePosition() throws Exception {
+        OrderCursor cursor = new OrderCursor(new Timestamp(1677000000123L), 42);
+        OrderCursor decoded = OrderCursor.decode(cursor.encode());
+        assertEquals(cursor.getBookingTime().getTime(), decoded.getBookingTime().getTime());
+        assertEquals(cursor.getId(), decoded.getId());
+    }
+
+    @Test
+    public void encodedCursorIsUrlSafe() {
+        String encoded = new OrderCursor(new Timestamp(Long.MAX_VALUE), Integer.MAX_VALUE).encode();
+        assertEquals(encoded, encoded.replaceAll("[^A-Za-z0-9_-]", ""));
+    }
+
+    @Test
+    public void missingCursorStartsFromFirstPage() throws Exception {
+        assertNull(OrderCursor.decode(null));
+        assertNull(OrderCursor.decode(""));
+    }
+
+    @Test
+    public void nonBase64CursorIsRejected() {
+        assertRejected("not a cursor!");
+        assertRejected("%%%%");
+    }
+
+    @Test
+    public void truncatedCursorIsRejected() {
+        String encoded = new OrderCursor(new Timestamp(1677000000123L), 42).encode();
+        assertRejected(encoded.substring(0, 8));
+        assertRejected(encoded.substring(0, 1));
+    }
+
+    @Test
+    public void malformedCursorIsRejected() {
+        assertRejected(raw("1677000000123"));
+        assertRejected(raw("1677000000123:"));
+        assertRejected(raw(":42"));
+        assertRejected(raw("yesterday:42"));
+        assertRejected(raw("1677000000123:first"));
+        assertRejected(raw("1677000000123:42:7"));
+        assertRejected(raw("1677000000123:99999999999"));
+    }
+
+    private static String raw(String cursor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertRejected(String cursor) {
+        InvalidAttributesException exception = assertThrows(InvalidAttributesException.class, () -> OrderCursor.decode(cursor), cursor);
+        assertEquals(HttpStatus.NOT_ACCEPTABLE, exception.getHttpStatus());
+    }
+}
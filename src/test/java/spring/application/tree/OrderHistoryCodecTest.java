@@ -0,0 +1,194 @@
+package spring.application.tree;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import spring.application.tree.data.orders.attributes.OrderHistoryEvent;
+import spring.application.tree.data.orders.attributes.OrderStatus;
+import spring.application.tree.data.orders.models.OrderModel;
+import spring.application.tree.data.orders.models.ProductModel;
+import spring.application.tree.data.statistic.models.OrderHistoryElement;
+import spring.application.tree.data.statistic.models.OrderHistoryNode;
+import spring.application.tree.data.statistic.models.OrderHistoryRecord;
+import spring.application.tree.data.statistic.repository.OrderHistoryCodec;
+import spring.application.tree.data.utility.json.JsonCodec;
+
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OrderHistoryCodecTest {
+    private static final int SNAPSHOT_INTERVAL = 4;
+    private static final String ORDER_NUMBER = "100000001";
+
+    private JsonCodec jsonCodec;
+    private OrderHistoryCodec codec;
+
+    @BeforeEach
+    public void setUp() {
+        jsonCodec = new JsonCodec();
+        codec = new OrderHistoryCodec(jsonCodec, SNAPSHOT_INTERVAL);
+    }
+
+    @Test
+    public void appendedChainDecodesToAppendedStates() throws Exception {
+        List<String> states = orderStates(10);
+        List<OrderHistoryNode> chain = append(states);
+        for (OrderHistoryNode node : chain) {
+            assertEquals((node.getVersion() - 1) % SNAPSHOT_INTERVAL == 0, node.isSnapshot(), "snapshot flag of version " + node.getVersion());
+        }
+        assertDecodesTo(states, codec.decode(chain));
+    }
+
+    @Test
+    public void nullMemberIsEncodedAsRemoval() throws Exception {
+        OrderModel order = order(1);
+        String before = jsonCodec.writeOrderState(order);
+        order.setDeliveryAddress(null);
+        List<String> states = List.of(before, jsonCodec.writeOrderState(order));
+        List<OrderHistoryNode> chain = append(states);
+        assertFalse(chain.get(1).isSnapshot());
+        assertTrue(jsonCodec.readTree(chain.get(1).getState()).get("deliveryAddress").isNull());
+        assertNull(codec.decode(chain).get(1).getState().getDeliveryAddress());
+        assertDecodesTo(states, codec.decode(chain));
+    }
+
+    @Test
+    public void nullStateForcesSnapshot() throws Exception {
+        List<String> states = List.of(jsonCodec.writeOrderState(order(1)), "null", jsonCodec.writeOrderState(order(2)));
+        List<OrderHistoryNode> chain = append(states);
+        assertTrue(chain.get(1).isSnapshot());
+        assertTrue(chain.get(2).isSnapshot());
+        List<OrderHistoryElement> decoded = codec.decode(chain);
+        assertNull(decoded.get(1).getState());
+        assertEquals(jsonCodec.readOrderState(states.get(2)), decoded.get(2).getState());
+    }
+
+    @Test
+    public void staleHeadForcesSnapshot() throws Exception {
+        List<String> states = orderStates(2);
+        append(states.subList(0, 1));
+        OrderHistoryRecord record = new OrderHistoryRecord(ORDER_NUMBER, states.get(1), OrderHistoryEvent.ORDER_UPDATED, new Timestamp(System.currentTimeMillis()));
+        List<OrderHistoryRecord> encoded = codec.encode(List.of(record), Map.of(ORDER_NUMBER, 2L));
+        assertTrue(encoded.get(0).isSnapshot());
+        assertEquals(states.get(1), encoded.get(0).getState());
+    }
+
+    @Test
+    public void rangeStartingOnDeltaNeedsItsBase() throws Exception {
+        List<String> states = orderStates(7);
+        List<OrderHistoryNode> chain = append(states);
+        OrderHistoryNode first = chain.get(5);
+        assertFalse(first.isSnapshot());
+        List<OrderHistoryElement> withoutBase = codec.decode(chain.subList(5, 7));
+        assertNull(withoutBase.get(0).getState());
+        assertNull(withoutBase.get(1).getState());
+        List<OrderHistoryElement> withBase = codec.decode(chain.subList(4, 7));
+        assertTrue(chain.get(4).isSnapshot());
+        assertDecodesTo(states.subList(4, 7), withBase);
+    }
+
+    @Test
+    public void compactionPreservesDecodedStates() throws Exception {
+        List<String> states = orderStates(9);
+        List<OrderHistoryNode> chain = new ArrayList<>();
+        for (int i = 0; i < states.size(); i++) {
+            chain.add(node(i + 1, states.get(i), true));
+        }
+        List<OrderHistoryNode> changed = codec.compact(chain);
+        assertEquals(states.size() - 3, changed.size());
+        Map<Integer, OrderHistoryNode> changedById = new HashMap<>();
+        changed.forEach(node -> changedById.put(node.getId(), node));
+        for (OrderHistoryNode node : chain) {
+            OrderHistoryNode compacted = changedById.get(node.getId());
+            if (compacted != null) {
+                node.setState(compacted.getState());
+                node.setSnapshot(compacted.isSnapshot());
+            }
+            assertEquals((node.getVersion() - 1) % SNAPSHOT_INTERVAL == 0, node.isSnapshot(), "snapshot flag of version " + node.getVersion());
+        }
+        assertDecodesTo(states, codec.decode(chain));
+        assertTrue(codec.compact(chain).isEmpty());
+    }
+
+    @Test
+    public void compactionLeavesBrokenChainAlone() throws Exception {
+        List<String> states = orderStates(3);
+        List<OrderHistoryNode> chain = new ArrayList<>();
+        chain.add(node(1, states.get(0), true));
+        chain.add(node(2, "{not json", true));
+        chain.add(node(3, "{\"paid\":true}", false));
+        assertTrue(codec.compact(chain).isEmpty());
+    }
+
+    private List<OrderHistoryNode> append(List<String> states) {
+        List<OrderHistoryNode> chain = new ArrayList<>();
+        for (String state : states) {
+            OrderHistoryRecord record = new OrderHistoryRecord(ORDER_NUMBER, state, OrderHistoryEvent.ORDER_UPDATED, new Timestamp(System.currentTimeMillis()));
+            OrderHistoryRecord encoded = codec.encode(List.of(record), Map.of(ORDER_NUMBER, (long) chain.size())).get(0);
+            chain.add(node(chain.size() + 1, encoded.getState(), encoded.isSnapshot()));
+        }
+        return chain;
+    }
+
+    private void assertDecodesTo(List<String> states, List<OrderHistoryElement> decoded) throws Exception {
+        assertEquals(states.size(), decoded.size());
+        for (int i = 0; i < states.size(); i++) {
+            assertEquals(jsonCodec.readOrderState(states.get(i)), decoded.get(i).getState(), "state of version " + decoded.get(i).getVersion());
+        }
+    }
+
+    private List<String> orderStates(int count) throws Exception {
+        List<String> states = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            states.add(jsonCodec.writeOrderState(order(i)));
+        }
+        return states;
+    }
+
+    /**
+     * Every step changes a scalar, every other step the products array and every third step removes the delivery address
+     */
+    private OrderModel order(int step) {
+        OrderModel order = new OrderModel();
+        order.setId(1);
+        order.setCustomerId(1);
+        order.setOrderNumber(new BigInteger(ORDER_NUMBER));
+        order.setDeliveryAddress(step % 3 == 0 ? null : "Street " + step);
+        order.setDeliveryCost(10.0 + step);
+        order.setProductCost(100.0);
+        order.setPaid(step % 2 == 0);
+        order.setOrderStatus(OrderStatus.INITIATED);
+        List<ProductModel> products = new ArrayList<>();
+        for (int i = 1; i <= 1 + step / 2; i++) {
+            ProductModel product = new ProductModel();
+            product.setId(i);
+            product.setName("Product " + i);
+            product.setPrice(10.0 * i);
+            product.setQuantity(i);
+            product.setDescription(Map.of("color", i % 2 == 0 ? "red" : "blue"));
+            products.add(product);
+        }
+        order.setProducts(products);
+        return order;
+    }
+
+    private OrderHistoryNode node(int version, String state, boolean snapshot) {
+        OrderHistoryNode node = new OrderHistoryNode();
+        node.setId(version);
+        node.setOrderNumber(new BigInteger(ORDER_NUMBER));
+        node.setState(state);
+        node.setSnapshot(snapshot);
+        node.setEvent(OrderHistoryEvent.ORDER_UPDATED);
+        node.setPreviousRecord(version == 1 ? null : version - 1);
+        node.setVersion((long) version);
+        return node;
+    }
+}
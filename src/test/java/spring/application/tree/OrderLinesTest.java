@@ -0,0 +1,46 @@
+package spring.application.tree;
+
+import org.junit.jupiter.api.Test;
+import spring.application.tree.data.exceptions.InvalidAttributesException;
+import spring.application.tree.data.orders.models.OrderLines;
+import spring.application.tree.data.orders.models.ProductModel;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OrderLinesTest {
+    @Test
+    public void productsWithSameIdAreMerged() throws Exception {
+        Map<Integer, Integer> lines = OrderLines.ofProducts(List.of(product(2, 3), product(1, null), product(2, 1)));
+        assertEquals(List.of(1, 2), List.copyOf(lines.keySet()));
+        assertEquals(1, lines.get(1));
+        assertEquals(4, lines.get(2));
+    }
+
+    @Test
+    public void productWithoutIdIsRejected() {
+        assertThrows(InvalidAttributesException.class, () -> OrderLines.ofProducts(List.of(product(1, 1), product(null, 1))));
+    }
+
+    @Test
+    public void nonPositiveQuantityIsRejected() {
+        assertThrows(InvalidAttributesException.class, () -> OrderLines.ofProducts(List.of(product(1, 0))));
+        assertThrows(InvalidAttributesException.class, () -> OrderLines.ofProducts(List.of(product(1, -2))));
+    }
+
+    @Test
+    public void nullProductIdIsRejected() {
+        assertThrows(InvalidAttributesException.class, () -> OrderLines.ofProductIds(Arrays.asList(1, null)));
+    }
+
+    private ProductModel product(Integer id, Integer quantity) {
+        ProductModel product = new ProductModel();
+        product.setId(id);
+        product.setQuantity(quantity);
+        return product;
+    }
+}
@@ -0,0 +1,67 @@
+package spring.application.tree;
+
+import org.junit.jupiter.api.Test;
+import spring.application.tree.data.utility.sql.ParameterBuckets;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParameterBucketsTest {
+    @Test
+    public void sizesRoundUpToNearestBucket() {
+        assertEquals(1, ParameterBuckets.bucketSize(1));
+        assertEquals(4, ParameterBuckets.bucketSize(2));
+        assertEquals(4, ParameterBuckets.bucketSize(4));
+        assertEquals(16, ParameterBuckets.bucketSize(5));
+        assertEquals(16, ParameterBuckets.bucketSize(16));
+        assertEquals(64, ParameterBuckets.bucketSize(17));
+        assertEquals(64, ParameterBuckets.bucketSize(64));
+    }
+
+    @Test
+    public void sizesAboveLargestBucketRoundUpToItsMultiple() {
+        assertEquals(128, ParameterBuckets.bucketSize(65));
+        assertEquals(128, ParameterBuckets.bucketSize(128));
+        assertEquals(192, ParameterBuckets.bucketSize(129));
+    }
+
+    @Test
+    public void listsOnBoundaryAreReturnedAsIs() {
+        for (int size : new int[]{1, 4, 16, 64, 128}) {
+            List<Integer> values = values(size);
+            assertSame(values, ParameterBuckets.bucket(values));
+        }
+    }
+
+    @Test
+    public void listsBetweenBoundariesArePaddedWithLastValue() {
+        for (int size : new int[]{2, 3, 5, 15, 17, 63, 65, 127, 129}) {
+            List<Integer> values = values(size);
+            List<Integer> padded = ParameterBuckets.bucket(values);
+            assertEquals(ParameterBuckets.bucketSize(size), padded.size(), "padded size of " + size);
+            assertEquals(values, padded.subList(0, size));
+            assertTrue(padded.subList(size, padded.size()).stream().allMatch(value -> value == size), "padding of " + size);
+            assertEquals(size, values.size());
+        }
+    }
+
+    @Test
+    public void emptyAndMissingListsAreReturnedAsIs() {
+        List<Integer> empty = new ArrayList<>();
+        assertSame(empty, ParameterBuckets.bucket(empty));
+        assertNull(ParameterBuckets.bucket(null));
+    }
+
+    private static List<Integer> values(int size) {
+        List<Integer> values = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,167 @@
+package spring.application.tree;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.AbstractSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import spring.application.tree.data.utility.loaders.SQLScript;
+import spring.application.tree.data.utility.loaders.SQLScriptRegistry;
+import spring.application.tree.load.MariaDbMigrationResourceProvider;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN for every registered SQL script against the database from DB_URL, DB_USERNAME, DB_PASSWORD
+ * and fails when a statement reads a whole table that has no index usable for it. Skipped when DB_URL is not set.
+ * A freshly migrated schema is empty and the optimizer scans tables of a few rows even when an index fits, so the check
+ * relies on possible_keys rather than on the index the optimizer picked.
+ * The data source uses client-side prepared statements, so values are inlined into the statement text and have to be
+ * of the type the clause expects, LIMIT and OFFSET only accept numbers. MariaDB servers, e.g. the one of the load-test
+ * profile, are migrated through MariaDbMigrationResourceProvider.
+ */
+public class QueryPlanRegressionTest {
+    /**
+     * Statements that read a whole table on purpose
+     */
+    private static final Set<SQLScript> FULL_SCAN_ALLOWED = EnumSet.of(SQLScript.GET_PRODUCTS);
+    private static final String PARAMETER_VALUE = "1";
+    private static final long NUMERIC_PARAMETER_VALUE = 1L;
+    private static final Pattern NUMERIC_CLAUSE = Pattern.compile("(?i)(\\bLIMIT|\\bOFFSET|(\\bid|_id|\\bversion)\\s*(<=|>=|<|>|=))\\s*$");
+    private static final Pattern READS_TABLE = Pattern.compile("(?i)\\bFROM\\b");
+    private static final Pattern TEMPORAL_COMPARISON = Pattern.compile("(?i)(_at|_time|\\bdate)\\s*(<=|>=|<|>|=)\\s*$");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private static SQLScriptRegistry sqlScriptRegistry;
+
+    @BeforeAll
+    public static void setUp() throws Exception {
+        String url = System.getenv("DB_URL");
+        Assumptions.assumeTrue(url != null && !url.isBlank(), "DB_URL is not set, query plans are not checked");
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, System.getenv("DB_USERNAME"), System.getenv("DB_PASSWORD"));
+        FluentConfiguration migrations = Flyway.configure()
+                                               .dataSource(dataSource)
+                                               .locations("classpath:migration")
+                                               .outOfOrder(true)
+                                               .baselineOnMigrate(true);
+        try (Connection connection = dataSource.getConnection()) {
+            if (connection.getMetaData().getDatabaseProductVersion().contains("MariaDB")) {
+                migrations.resourceProvider(new MariaDbMigrationResourceProvider());
+            }
+        }
+        migrations.load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        sqlScriptRegistry = new SQLScriptRegistry();
+    }
+
+    @Test
+    public void registeredScriptsDoNotScanUnindexedTables() {
+        List<String> violations = new ArrayList<>();
+        for (SQLScript script : SQLScript.values()) {
+            if (FULL_SCAN_ALLOWED.contains(script)) {
+                continue;
+            }
+            String statement = explainableStatement(script);
+            if (statement == null) {
+                continue;
+            }
+            RowCallbackHandler planChecker = (rs) -> {
+                boolean insertTarget = "INSERT".equalsIgnoreCase(rs.getString("select_type"));
+                String table = rs.getString("table");
+                boolean derivedTable = table != null && table.startsWith("<");
+                if (!insertTarget && !derivedTable && "ALL".equalsIgnoreCase(rs.getString("type")) && rs.getString("possible_keys") == null) {
+                    violations.add(String.format("%s scans table %s without an index", script, table));
+                }
+            };
+            Object[] arguments = positionalArguments(statement);
+            if (arguments.length > 0) {
+                jdbcTemplate.query("EXPLAIN " + statement, planChecker, arguments);
+            } else {
+                namedParameterJdbcTemplate.query("EXPLAIN " + statement, new ExplainParameterSource(), planChecker);
+            }
+        }
+        assertTrue(violations.isEmpty(), String.join("\n", violations));
+    }
+
+    /**
+     * Script text with every template branch enabled, null when there is nothing to explain
+     */
+    private String explainableStatement(SQLScript script) {
+        String sql = script.isTemplate()
+                ? sqlScriptRegistry.renderTemplate(script, script.getTemplateArguments())
+                : sqlScriptRegistry.getScript(script);
+        sql = sql.trim();
+        if (sql.endsWith(";")) {
+            sql = sql.substring(0, sql.length() - 1);
+        }
+        String upperCaseSQL = sql.toUpperCase();
+        if (upperCaseSQL.startsWith("CALL") || !READS_TABLE.matcher(sql).find() && !upperCaseSQL.startsWith("UPDATE")) {
+            return null;
+        }
+        return sql;
+    }
+
+    /**
+     * Numbers for the row counts of LIMIT and OFFSET and for comparisons against identifiers and versions, timestamps for comparisons against time columns, strings everywhere else
+     */
+    private Object[] positionalArguments(String statement) {
+        List<Object> arguments = new ArrayList<>();
+        for (int i = statement.indexOf('?'); i >= 0; i = statement.indexOf('?', i + 1)) {
+            String preceding = statement.substring(0, i);
+            if (NUMERIC_CLAUSE.matcher(preceding).find()) {
+                arguments.add(NUMERIC_PARAMETER_VALUE);
+            } else if (TEMPORAL_COMPARISON.matcher(preceding).find()) {
+                arguments.add(new Timestamp(System.currentTimeMillis()));
+            } else {
+                arguments.add(PARAMETER_VALUE);
+            }
+        }
+        return arguments.toArray();
+    }
+
+    /**
+     * Named parameter values shaped after the parameter names, numbers for row counts, identifiers and versions, strings keep
+     * comparisons against VARCHAR columns indexable
+     */
+    private static class ExplainParameterSource extends AbstractSqlParameterSource {
+        @Override
+        public boolean hasValue(String paramName) {
+            return true;
+        }
+
+        @Override
+        public Object getValue(String paramName) {
+            if (paramName.startsWith("booking") || paramName.endsWith("Time")) {
+                return new Timestamp(System.currentTimeMillis());
+            }
+            if (paramName.equals("paid")) {
+                return false;
+            }
+            if (paramName.equals("ids") || paramName.endsWith("Ids") || paramName.endsWith("Statuses")) {
+                return List.of(NUMERIC_PARAMETER_VALUE);
+            }
+            if (paramName.endsWith("s")) {
+                return List.of(PARAMETER_VALUE);
+            }
+            if (paramName.equals("limit") || paramName.endsWith("Id") || paramName.endsWith("Version") || paramName.startsWith("cost")) {
+                return NUMERIC_PARAMETER_VALUE;
+            }
+            return PARAMETER_VALUE;
+        }
+    }
+}
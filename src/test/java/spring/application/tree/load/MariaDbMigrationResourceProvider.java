@@ -0,0 +1,88 @@
+package spring.application.tree.load;
+
+import org.flywaydb.core.api.ResourceProvider;
+import org.flywaydb.core.api.resource.LoadableResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the Flyway migrations to the embedded MariaDB, which only accepts a column CHECK constraint after its DEFAULT clause
+ */
+public class MariaDbMigrationResourceProvider implements ResourceProvider {
+    private static final String LOCATION = "migration/";
+    private static final Pattern CHECK_BEFORE_DEFAULT = Pattern.compile("(CHECK\\s*\\([^()]*\\))\\s+(DEFAULT\\s+[^\\s,)]+)", Pattern.CASE_INSENSITIVE);
+
+    /** Relative path -> Migration */
+    private final Map<String, LoadableResource> migrations = new HashMap<>();
+
+    public MariaDbMigrationResourceProvider() throws IOException {
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources("classpath*:" + LOCATION + "**/*.sql")) {
+            String path = resource.getURL().toString();
+            String relativePath = path.substring(path.lastIndexOf(LOCATION) + LOCATION.length());
+            String script = StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
+            migrations.put(relativePath, new Migration(path, relativePath, CHECK_BEFORE_DEFAULT.matcher(script).replaceAll("$2 $1")));
+        }
+    }
+
+    @Override
+    public LoadableResource getResource(String name) {
+        return migrations.get(name);
+    }
+
+    @Override
+    public Collection<LoadableResource> getResources(String prefix, String[] suffixes) {
+        return migrations.values().stream()
+                .filter(migration -> migration.getFilename().startsWith(prefix))
+                .filter(migration -> Arrays.stream(suffixes).anyMatch(migration.getFilename()::endsWith))
+                .collect(Collectors.toList());
+    }
+
+    private static class Migration extends LoadableResource {
+        private final String absolutePath;
+        private final String relativePath;
+        private final String script;
+
+        private Migration(String absolutePath, String relativePath, String script) {
+            this.absolutePath = absolutePath;
+            this.relativePath = relativePath;
+            this.script = script;
+        }
+
+        @Override
+        public Reader read() {
+            return new StringReader(script);
+        }
+
+        @Override
+        public String getAbsolutePath() {
+            return absolutePath;
+        }
+
+        @Override
+        public String getAbsolutePathOnDisk() {
+            return absolutePath;
+        }
+
+        @Override
+        public String getFilename() {
+            return relativePath.substring(relativePath.lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public String getRelativePath() {
+            return relativePath;
+        }
+    }
+}